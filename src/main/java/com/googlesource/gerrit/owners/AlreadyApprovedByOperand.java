@@ -23,19 +23,31 @@ import com.google.gerrit.server.query.approval.ApprovalQueryBuilder.UserInOperan
 import com.google.gerrit.server.query.approval.UserInPredicate;
 import com.google.inject.AbstractModule;
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 import com.google.inject.Singleton;
 import com.googlesource.gerrit.owners.restapi.GetFilesOwners;
 
 @Singleton
 public class AlreadyApprovedByOperand implements UserInOperandFactory {
   public static final String OPERAND = "already-approved-by";
-  private final GetFilesOwners getFilesOwners;
+  private final Provider<GetFilesOwners> getFilesOwners;
   private final DiffOperations diffOperations;
+  private final PatchSetDeltaCache deltaCache;
+  private final PatchSetBasePathsCache basePathsCache;
+  private final BranchOwnerAccountsCache ownerAccountsCache;
+  private final CopyConditionPrefetcher prefetcher;
+  private final OwnersMetrics metrics;
+  private final AutoApprovalDecisionCache autoApprovalDecisions;
+  private final EvaluationCost cost = new EvaluationCost(10);
 
   public static class Module extends AbstractModule {
 
     @Override
     protected void configure() {
+      install(PatchSetDeltaCache.module());
+      install(PatchSetBasePathsCache.module());
+      install(BranchOwnerAccountsCache.module());
+      install(new CopyConditionPrefetcher.Module());
       bind(UserInOperandFactory.class)
           .annotatedWith(Exports.named(OPERAND))
           .to(AlreadyApprovedByOperand.class);
@@ -45,13 +57,37 @@ public class AlreadyApprovedByOperand implements UserInOperandFactory {
   public static String FULL_OPERAND_WITH_PLUGIN_NAME = String.format("%s_%s", OPERAND, "owners");
 
   @Inject
-  AlreadyApprovedByOperand(GetFilesOwners getFilesOwners, DiffOperations diffOperations) {
+  AlreadyApprovedByOperand(
+      Provider<GetFilesOwners> getFilesOwners,
+      DiffOperations diffOperations,
+      PatchSetDeltaCache deltaCache,
+      PatchSetBasePathsCache basePathsCache,
+      BranchOwnerAccountsCache ownerAccountsCache,
+      CopyConditionPrefetcher prefetcher,
+      OwnersMetrics metrics,
+      AutoApprovalDecisionCache autoApprovalDecisions) {
     this.getFilesOwners = getFilesOwners;
     this.diffOperations = diffOperations;
+    this.deltaCache = deltaCache;
+    this.basePathsCache = basePathsCache;
+    this.ownerAccountsCache = ownerAccountsCache;
+    this.prefetcher = prefetcher;
+    this.metrics = metrics;
+    this.autoApprovalDecisions = autoApprovalDecisions;
   }
 
   @Override
   public Predicate<ApprovalContext> create(UserInPredicate.Field field) throws QueryParseException {
-    return new AlreadyApprovedByPredicate(getFilesOwners, diffOperations, field);
+    return new AlreadyApprovedByPredicate(
+        getFilesOwners.get(),
+        diffOperations,
+        deltaCache,
+        basePathsCache,
+        ownerAccountsCache,
+        cost,
+        prefetcher,
+        metrics,
+        autoApprovalDecisions,
+        field);
   }
 }
@@ -15,6 +15,7 @@
 package com.googlesource.gerrit.owners;
 
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.flogger.LazyArgs.lazy;
 import static com.googlesource.gerrit.owners.AlreadyApprovedByOperand.FULL_OPERAND_WITH_PLUGIN_NAME;
 import static com.googlesource.gerrit.owners.AlreadyApprovedByOperand.OPERAND;
@@ -22,6 +23,8 @@ import static com.googlesource.gerrit.owners.AutoOwnersApprovalFunctions.allowsA
 import static com.googlesource.gerrit.owners.AutoOwnersApprovalFunctions.modifiedFilesBetweenPatchSets;
 import static com.googlesource.gerrit.owners.AutoOwnersApprovalFunctions.touchedPaths;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.flogger.FluentLogger;
 import com.google.gerrit.entities.Account;
 import com.google.gerrit.entities.PatchSet;
@@ -40,7 +43,11 @@ import com.googlesource.gerrit.owners.common.InvalidOwnersFileException;
 import com.googlesource.gerrit.owners.restapi.GetFilesOwners;
 import java.io.IOException;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectInserter;
 import org.eclipse.jgit.revwalk.RevCommit;
@@ -51,17 +58,40 @@ public class AlreadyApprovedByPredicate extends OperatorPredicate<ApprovalContex
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
   private final GetFilesOwners getFilesOwners;
   private final DiffOperations diffOperations;
+  private final PatchSetDeltaCache deltaCache;
+  private final PatchSetBasePathsCache basePathsCache;
+  private final BranchOwnerAccountsCache ownerAccountsCache;
+  private final EvaluationCost cost;
+  private final CopyConditionPrefetcher prefetcher;
+  private final OwnersMetrics metrics;
+  private final AutoApprovalDecisionCache autoApprovalDecisions;
   private final UserInPredicate.Field predicateField;
 
   private static final boolean DISABLE_RENAME_DETECTION = false;
+  private static final String DELTA_TASK = "delta";
+  private static final String BASE_OWNERS_TASK = "base-owners";
 
   public AlreadyApprovedByPredicate(
       GetFilesOwners getFilesOwners,
       DiffOperations diffOperations,
+      PatchSetDeltaCache deltaCache,
+      PatchSetBasePathsCache basePathsCache,
+      BranchOwnerAccountsCache ownerAccountsCache,
+      EvaluationCost cost,
+      CopyConditionPrefetcher prefetcher,
+      OwnersMetrics metrics,
+      AutoApprovalDecisionCache autoApprovalDecisions,
       UserInPredicate.Field predicateField) {
     super("approverin", OPERAND);
     this.getFilesOwners = getFilesOwners;
     this.diffOperations = diffOperations;
+    this.deltaCache = deltaCache;
+    this.basePathsCache = basePathsCache;
+    this.ownerAccountsCache = ownerAccountsCache;
+    this.cost = cost;
+    this.prefetcher = prefetcher;
+    this.metrics = metrics;
+    this.autoApprovalDecisions = autoApprovalDecisions;
     this.predicateField = predicateField;
   }
 
@@ -89,25 +119,46 @@ public class AlreadyApprovedByPredicate extends OperatorPredicate<ApprovalContex
           ctx.sourcePatchSetId(),
           project);
 
-      Map<String, FileDiffOutput> priorVsCurrent =
-          modifiedFilesBetweenPatchSets(diffOperations, project, sourcePatchSet, targetPatchSet);
+      String branch = ctx.changeData().branchOrThrow().branch();
+      // Only owners can have their label copied, whatever the patch-sets.
+      if (!ownerAccountsCache.mayOwnFiles(project, branch, currentApprover)) {
+        logger.atFinest().log(
+            "Approver '%s' is not referenced by any OWNERS file of the branch. Label will NOT be"
+                + " copied.",
+            currentApprover);
+        if (currentApprover.equals(changeOwner)) {
+          autoApprovalDecisions.put(targetPatchSet.id(), Set.of());
+        }
+        cost.cached();
+        return false;
+      }
 
-      // We can't simply look at keys because it won't contain the old name of renamed-files.
-      Set<String> allFilePathsInDiff = touchedPaths(priorVsCurrent);
+      PatchSetDeltaCache.Key upload =
+          new PatchSetDeltaCache.Key(project, branch, sourcePatchSet.id(), targetPatchSet.id());
+      Future<PatchSetDeltaCache.Delta> deltaTask =
+          prefetcher.prefetch(
+              upload, DELTA_TASK, () -> getDelta(upload, sourcePatchSet, targetPatchSet));
 
-      String branch = ctx.changeData().branchOrThrow().branch();
+      PatchSetDeltaCache.Delta delta = prefetcher.await(upload, deltaTask);
+      Set<String> allFilePathsInDiff = delta.touchedPaths();
+      ResolvedOwnership owners = delta.owners();
       Set<String> filesOwnedByApprover =
-          getFilesOwners.filterFilesOwnedBy(currentApprover, allFilePathsInDiff, project, branch);
+          owners.filterFilesOwnedBy(currentApprover, allFilePathsInDiff);
 
-      if (allowsAutoApprovalOnPatch(
-          currentApprover,
-          changeOwner,
-          uploader,
-          filesOwnedByApprover,
-          allFilePathsInDiff,
-          getFilesOwners,
-          project,
-          branch)) {
+      boolean autoApproved =
+          allowsAutoApprovalOnPatch(
+              currentApprover,
+              changeOwner,
+              uploader,
+              filesOwnedByApprover,
+              allFilePathsInDiff,
+              owners);
+      if (currentApprover.equals(changeOwner)) {
+        autoApprovalDecisions.put(
+            targetPatchSet.id(), autoApproved ? filesOwnedByApprover : Set.of());
+      }
+
+      if (autoApproved) {
         logger.atFinest().log(
             "Approver '%s' is change owner and uploader. only owned files have been modified and"
                 + " all of them allow auto-owners-approved. Label WILL be copied.",
@@ -120,51 +171,134 @@ public class AlreadyApprovedByPredicate extends OperatorPredicate<ApprovalContex
             "Approver '%s' owns files that were changed in this new patch set: %s",
             currentApprover, lazy(() -> String.join(",", filesOwnedByApprover)));
 
-        return shouldCopyLabelForOwnedFiles(
-            priorVsCurrent.values(), filesOwnedByApprover, currentApprover);
+        return shouldCopyLabelForOwnedFiles(delta.files(), filesOwnedByApprover, currentApprover);
       }
 
       // The new patchSet has not modified anything I own.
       // I will copy my label, but only if I used to own something in the change.
-      try (ObjectInserter ins =
-          new InMemoryInserter(ctx.repoView().getRevWalk().getObjectReader())) {
-
-        Map<String, ModifiedFile> baseVsPrior =
-            diffOperations.loadModifiedFilesAgainstParentIfNecessary(
-                project,
-                sourcePatchSet.commitId(),
-                getParentNum(targetPatchSet.commitId(), ctx.repoView().getRevWalk()),
-                ctx.repoView(),
-                ins,
-                DISABLE_RENAME_DETECTION);
-        boolean oldPatchSetHasFilesOwnedByMe =
-            getFilesOwners.isAnyFileOwnedBy(
-                currentApprover,
-                baseVsPrior.keySet(),
-                project,
-                ctx.changeData().branchOrThrow().branch());
+      Set<String> baseVsPriorPaths = getBaseVsPriorPaths(ctx, project, sourcePatchSet);
+      boolean oldPatchSetHasFilesOwnedByMe;
+      if (prefetcher.isEnabled()) {
+        // Shared with the other approvals of the upload that end up here
+        Future<ResolvedOwnership> baseOwnersTask =
+            prefetcher.prefetch(
+                upload,
+                BASE_OWNERS_TASK,
+                () -> getFilesOwners.resolveOwnership(project, branch, baseVsPriorPaths));
+        oldPatchSetHasFilesOwnedByMe =
+            prefetcher
+                .await(upload, baseOwnersTask)
+                .isAnyFileOwnedBy(currentApprover, baseVsPriorPaths);
+      } else {
+        oldPatchSetHasFilesOwnedByMe =
+            getFilesOwners.isAnyFileOwnedBy(currentApprover, baseVsPriorPaths, project, branch);
+      }
 
-        logger.atFinest().log(
-            "Has approver '%s' ever owned anything in this change? %s",
-            currentApprover,
-            oldPatchSetHasFilesOwnedByMe
-                ? "yes, will copy approval"
-                : "No, will not copy approval");
+      logger.atFinest().log(
+          "Has approver '%s' ever owned anything in this change? %s",
+          currentApprover,
+          oldPatchSetHasFilesOwnedByMe ? "yes, will copy approval" : "No, will not copy approval");
 
-        return oldPatchSetHasFilesOwnedByMe;
-      }
+      return oldPatchSetHasFilesOwnedByMe;
+    } catch (TimeoutException e) {
+      metrics.countCopyConditionTimeouts.increment();
+      logger.atWarning().log(
+          "Deadline for computing %s of change %s expired. Label %s for user %s will NOT be"
+              + " copied.",
+          FULL_OPERAND_WITH_PLUGIN_NAME,
+          ctx.changeData().getId(),
+          ctx.labelType().getName(),
+          ctx.approverId());
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw failedToCompute(e);
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw failedToCompute(e.getCause());
     } catch (DiffNotAvailableException | IOException | InvalidOwnersFileException e) {
-      throw new StorageException(
-          String.format(
-              "Failed to compute %s, label will not be copied.", FULL_OPERAND_WITH_PLUGIN_NAME),
-          e);
+      throw failedToCompute(e);
+    }
+  }
+
+  private static StorageException failedToCompute(Throwable cause) {
+    return new StorageException(
+        String.format(
+            "Failed to compute %s, label will not be copied.", FULL_OPERAND_WITH_PLUGIN_NAME),
+        cause);
+  }
+
+  /**
+   * Returns the delta between the patch-sets, computing it only for the first approval evaluated
+   * against them.
+   */
+  private PatchSetDeltaCache.Delta getDelta(
+      PatchSetDeltaCache.Key key, PatchSet sourcePatchSet, PatchSet targetPatchSet)
+      throws DiffNotAvailableException, IOException, InvalidOwnersFileException {
+    Project.NameKey project = key.project();
+    Optional<PatchSetDeltaCache.Delta> cached = deltaCache.get(key);
+    if (cached.isPresent()) {
+      metrics.countPatchSetDeltaCacheHits.increment();
+      cost.cached();
+      return cached.get();
+    }
+    metrics.countPatchSetDeltaCacheMisses.increment();
+
+    Map<String, FileDiffOutput> priorVsCurrent =
+        modifiedFilesBetweenPatchSets(diffOperations, project, sourcePatchSet, targetPatchSet);
+
+    // We can't simply look at keys because it won't contain the old name of renamed-files.
+    Set<String> allFilePathsInDiff = touchedPaths(priorVsCurrent);
+
+    PatchSetDeltaCache.Delta delta =
+        new PatchSetDeltaCache.Delta(
+            priorVsCurrent.values().stream()
+                .map(PatchSetDeltaCache.FileDelta::of)
+                .collect(toImmutableList()),
+            ImmutableSet.copyOf(allFilePathsInDiff),
+            getFilesOwners.resolveOwnership(project, key.branch(), allFilePathsInDiff));
+    deltaCache.put(key, delta);
+    cost.computed(allFilePathsInDiff.size());
+    return delta;
+  }
+
+  /**
+   * Returns the paths modified by the source patch-set against its parent, loading them only the
+   * first time they are needed for the patch-set.
+   */
+  private Set<String> getBaseVsPriorPaths(
+      ApprovalContext ctx, Project.NameKey project, PatchSet sourcePatchSet)
+      throws DiffNotAvailableException {
+    int parentNum = getParentNum(ctx.targetPatchSet().commitId(), ctx.repoView().getRevWalk());
+    PatchSetBasePathsCache.Key key =
+        new PatchSetBasePathsCache.Key(project, sourcePatchSet.commitId(), parentNum);
+    Optional<ImmutableSet<String>> cached = basePathsCache.get(key);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+
+    try (ObjectInserter ins =
+        new InMemoryInserter(ctx.repoView().getRevWalk().getObjectReader())) {
+      Map<String, ModifiedFile> baseVsPrior =
+          diffOperations.loadModifiedFilesAgainstParentIfNecessary(
+              project,
+              sourcePatchSet.commitId(),
+              parentNum,
+              ctx.repoView(),
+              ins,
+              DISABLE_RENAME_DETECTION);
+      ImmutableSet<String> paths = ImmutableSet.copyOf(baseVsPrior.keySet());
+      basePathsCache.put(key, paths);
+      return paths;
     }
   }
 
   private static boolean shouldCopyLabelForOwnedFiles(
-      Iterable<FileDiffOutput> diffs, Set<String> ownedPaths, Account.Id currentApprover) {
+      Iterable<PatchSetDeltaCache.FileDelta> files,
+      Set<String> ownedPaths,
+      Account.Id currentApprover) {
 
-    for (FileDiffOutput diff : diffs) {
+    for (PatchSetDeltaCache.FileDelta diff : files) {
       if (!touchesOwnedPath(diff, ownedPaths)) {
         continue;
       }
@@ -194,12 +328,12 @@ public class AlreadyApprovedByPredicate extends OperatorPredicate<ApprovalContex
     return true;
   }
 
-  private static boolean touchesOwnedPath(FileDiffOutput d, Set<String> ownedPaths) {
+  private static boolean touchesOwnedPath(PatchSetDeltaCache.FileDelta d, Set<String> ownedPaths) {
     return d.newPath().filter(ownedPaths::contains).isPresent()
         || d.oldPath().filter(ownedPaths::contains).isPresent();
   }
 
-  private static boolean isPathChange(FileDiffOutput d) {
+  private static boolean isPathChange(PatchSetDeltaCache.FileDelta d) {
     // A path change means rename/add/delete: oldPath != newPath, including empty vs present.
     return !d.oldPath().equals(d.newPath());
   }
@@ -215,8 +349,9 @@ public class AlreadyApprovedByPredicate extends OperatorPredicate<ApprovalContex
     }
   }
 
+  /** Follows the cost of the last evaluations of the copy condition. */
   @Override
   public int getCost() {
-    return 10;
+    return cost.get();
   }
 }
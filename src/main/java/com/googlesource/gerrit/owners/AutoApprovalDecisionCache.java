@@ -0,0 +1,117 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.cache.Cache;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import com.google.gerrit.entities.PatchSet;
+import com.google.gerrit.server.cache.CacheModule;
+import com.google.gerrit.server.cache.serialize.CacheSerializer;
+import com.google.inject.Inject;
+import com.google.inject.Module;
+import com.google.inject.Singleton;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Named;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Auto-owners-approval decision taken for the change owner by the {@code
+ * already-approved-by_owners} copy condition when a patch-set is uploaded: the files of the
+ * patch-set that qualified for it, empty when the patch-set does not qualify. The decision is
+ * recorded along with the copy of the labels so that the REST API reports the same outcome without
+ * computing it again.
+ *
+ * <p>Decisions are persisted so that they survive restarts. They are still only a cache: a
+ * decision evicted by the disk limit is computed again, with the OWNERS of the branch at that time,
+ * which may differ from the outcome of the copy condition when the OWNERS changed since the upload.
+ */
+@Singleton
+public class AutoApprovalDecisionCache {
+  static final String CACHE_NAME = "owners_auto_approval_decisions";
+  static final long DEFAULT_DISK_LIMIT = 64 << 20;
+
+  static Module module() {
+    return new CacheModule() {
+      @Override
+      protected void configure() {
+        persist(CACHE_NAME, PatchSet.Id.class, new TypeLiteral<ImmutableSet<String>>() {})
+            .version(1)
+            .diskLimit(DEFAULT_DISK_LIMIT)
+            .keySerializer(PatchSetIdSerializer.INSTANCE)
+            .valueSerializer(PathsSerializer.INSTANCE);
+        bind(AutoApprovalDecisionCache.class);
+      }
+    };
+  }
+
+  enum PatchSetIdSerializer implements CacheSerializer<PatchSet.Id> {
+    INSTANCE;
+
+    @Override
+    public byte[] serialize(PatchSet.Id patchSet) {
+      return patchSet.getCommaSeparatedChangeAndPatchSetId().getBytes(UTF_8);
+    }
+
+    @Override
+    public PatchSet.Id deserialize(byte[] in) {
+      return PatchSet.Id.parse(new String(in, UTF_8));
+    }
+  }
+
+  enum PathsSerializer implements CacheSerializer<ImmutableSet<String>> {
+    INSTANCE;
+
+    @Override
+    public byte[] serialize(ImmutableSet<String> paths) {
+      ByteArrayDataOutput out = ByteStreams.newDataOutput();
+      out.writeInt(paths.size());
+      paths.forEach(out::writeUTF);
+      return out.toByteArray();
+    }
+
+    @Override
+    public ImmutableSet<String> deserialize(byte[] in) {
+      ByteArrayDataInput data = ByteStreams.newDataInput(in);
+      int size = data.readInt();
+      ImmutableSet.Builder<String> paths = ImmutableSet.builderWithExpectedSize(size);
+      for (int i = 0; i < size; i++) {
+        paths.add(data.readUTF());
+      }
+      return paths.build();
+    }
+  }
+
+  private final Cache<PatchSet.Id, ImmutableSet<String>> cache;
+
+  @Inject
+  AutoApprovalDecisionCache(@Named(CACHE_NAME) Cache<PatchSet.Id, ImmutableSet<String>> cache) {
+    this.cache = cache;
+  }
+
+  /** Returns the files of the patch-set that qualified for auto-owners-approval, if recorded. */
+  public Optional<ImmutableSet<String>> get(PatchSet.Id patchSet) {
+    return Optional.ofNullable(cache.getIfPresent(patchSet));
+  }
+
+  void put(PatchSet.Id patchSet, Set<String> autoApprovedFiles) {
+    cache.put(patchSet, ImmutableSet.copyOf(autoApprovedFiles));
+  }
+}
@@ -22,9 +22,6 @@ import com.google.gerrit.server.patch.DiffNotAvailableException;
 import com.google.gerrit.server.patch.DiffOperations;
 import com.google.gerrit.server.patch.DiffOptions;
 import com.google.gerrit.server.patch.filediff.FileDiffOutput;
-import com.googlesource.gerrit.owners.common.InvalidOwnersFileException;
-import com.googlesource.gerrit.owners.restapi.GetFilesOwners;
-import java.io.IOException;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -66,14 +63,11 @@ public final class AutoOwnersApprovalFunctions {
       Account.Id uploader,
       Set<String> filesOwnedByApprover,
       Set<String> allTouchedFiles,
-      GetFilesOwners getFilesOwners,
-      Project.NameKey project,
-      String branch)
-      throws IOException, InvalidOwnersFileException {
+      ResolvedOwnership owners) {
     return approver.equals(changeOwner)
         && approver.equals(uploader)
         && !filesOwnedByApprover.isEmpty()
         && filesOwnedByApprover.size() == allTouchedFiles.size()
-        && getFilesOwners.allOwnedFilesAllowAutoApproval(filesOwnedByApprover, project, branch);
+        && owners.getFileOwnersAllowedAutoApproval().containsAll(filesOwnedByApprover);
   }
 }
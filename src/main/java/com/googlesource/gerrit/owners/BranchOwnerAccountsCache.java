@@ -0,0 +1,369 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.server.cache.CacheModule;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.gerrit.server.project.ProjectState;
+import com.google.inject.Inject;
+import com.google.inject.Module;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import com.googlesource.gerrit.owners.common.Accounts;
+import com.googlesource.gerrit.owners.common.ConfigurationParser;
+import com.googlesource.gerrit.owners.common.Matcher;
+import com.googlesource.gerrit.owners.common.OwnersConfig;
+import com.googlesource.gerrit.owners.common.PluginSettings;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathSuffixFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * Accounts referenced by any OWNERS file that can be consulted for a branch: the OWNERS files of
+ * the branch and the ones in `refs/meta/config` of the project and of all its parents. An account
+ * that is not part of the set cannot own any path of the branch, which allows rejecting it without
+ * computing any diff nor resolving the OWNERS of any path.
+ *
+ * <p>The OWNERS files are parsed with the same parser used to resolve the owners of the paths, and
+ * the owners of each OWNERS blob are resolved once and shared by all the revisions containing it.
+ * The OWNERS files of a branch are tracked as the branch moves: only the trees that differ from the
+ * previous tip are walked. Entries are keyed by the OWNERS revision of the branch and expire
+ * shortly after being written, to also follow the changes of the accounts referenced.
+ *
+ * <p>The set must never miss an owner, therefore an account outside of it is only rejected when
+ * the set is exhaustive: OWNERS files referencing groups, whose membership may change at any time,
+ * or names that do not resolve to any account yet, make any account a possible owner. The OWNERS
+ * files of a branch seen for the first time are walked in the background, every account being a
+ * possible owner until they are.
+ */
+@Singleton
+class BranchOwnerAccountsCache {
+  static final String CACHE_NAME = "owners_branch_accounts";
+  static final Duration EXPIRE_AFTER_WRITE = Duration.ofMinutes(10);
+  static final int MAX_OWNERS_FILES = 10_000;
+  static final int MAX_BRANCHES = 1_000;
+  static final String GROUP_PREFIX = "group/";
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  static Module module() {
+    return new CacheModule() {
+      @Override
+      protected void configure() {
+        cache(CACHE_NAME, Key.class, OwnerAccounts.class).expireAfterWrite(EXPIRE_AFTER_WRITE);
+        bind(BranchOwnerAccountsCache.class);
+      }
+    };
+  }
+
+  record Key(Project.NameKey project, Optional<String> branch, String revision) {}
+
+  /**
+   * Accounts referenced by some OWNERS files.
+   *
+   * @param accounts accounts the owner names resolve to
+   * @param exhaustive whether no other account can be an owner, that is, no group is referenced and
+   *     all the names resolve to an account
+   */
+  record OwnerAccounts(ImmutableSet<Account.Id> accounts, boolean exhaustive) {
+    boolean mayContain(Account.Id account) {
+      return !exhaustive || accounts.contains(account);
+    }
+  }
+
+  /** OWNERS files of a branch at a given tip, by path. */
+  record BranchOwnersFiles(ObjectId tip, ImmutableMap<String, ObjectId> blobs) {}
+
+  private final Cache<Key, OwnerAccounts> cache;
+  private final Accounts accounts;
+  private final ConfigurationParser parser;
+  private final GitRepositoryManager repoManager;
+  private final ProjectCache projectCache;
+  private final PluginSettings pluginSettings;
+  private final WorkQueue workQueue;
+  private final Set<Key> loading = ConcurrentHashMap.newKeySet();
+  private final Cache<ObjectId, OwnerAccounts> ownersFiles =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAX_OWNERS_FILES)
+          .expireAfterWrite(EXPIRE_AFTER_WRITE.toMillis(), TimeUnit.MILLISECONDS)
+          .build();
+  private final Cache<BranchNameKey, BranchOwnersFiles> branches =
+      CacheBuilder.newBuilder().maximumSize(MAX_BRANCHES).build();
+
+  @Inject
+  BranchOwnerAccountsCache(
+      @Named(CACHE_NAME) Cache<Key, OwnerAccounts> cache,
+      Accounts accounts,
+      GitRepositoryManager repoManager,
+      ProjectCache projectCache,
+      PluginSettings pluginSettings,
+      WorkQueue workQueue) {
+    this.cache = cache;
+    this.accounts = accounts;
+    this.parser = new ConfigurationParser(accounts);
+    this.repoManager = repoManager;
+    this.projectCache = projectCache;
+    this.pluginSettings = pluginSettings;
+    this.workQueue = workQueue;
+  }
+
+  /**
+   * Returns false only when the account is certainly not an owner of any path of the branch. When
+   * the OWNERS files are not known yet or cannot be read the account is assumed to be a possible
+   * owner.
+   */
+  boolean mayOwnFiles(Project.NameKey project, String branch, Account.Id account) {
+    return accounts(project, branch).map(owners -> owners.mayContain(account)).orElse(true);
+  }
+
+  /**
+   * Returns false only when no OWNERS file that can be consulted for the branch references any
+   * owner. When the OWNERS files are not known yet or cannot be read the branch is assumed to have
+   * owners.
+   */
+  boolean hasOwners(Project.NameKey project, String branch) {
+    return accounts(project, branch)
+        .map(owners -> !owners.exhaustive() || !owners.accounts().isEmpty())
+        .orElse(true);
+  }
+
+  private Optional<OwnerAccounts> accounts(Project.NameKey project, String branch) {
+    Optional<ProjectState> projectState = projectCache.get(project);
+    if (projectState.isEmpty()) {
+      return Optional.empty();
+    }
+
+    Optional<String> ownersBranch =
+        pluginSettings.isBranchDisabled(branch) ? Optional.empty() : Optional.of(branch);
+    try (Repository repo = repoManager.openRepository(project)) {
+      Key key =
+          new Key(
+              project,
+              ownersBranch,
+              OwnersFingerprint.branchRevision(repo, projectState.get(), ownersBranch));
+      OwnerAccounts owners = cache.getIfPresent(key);
+      if (owners != null) {
+        return Optional.of(owners);
+      }
+      if (ownersBranch.isPresent()
+          && branches.getIfPresent(BranchNameKey.create(project, ownersBranch.get())) == null) {
+        // Walking the whole tree of the branch is not worth delaying the caller
+        loadInBackground(key, projectState.get());
+        return Optional.empty();
+      }
+      return Optional.of(cache.get(key, () -> load(repo, projectState.get(), ownersBranch)));
+    } catch (IOException | ExecutionException e) {
+      logger.atWarning().withCause(e).log(
+          "Unable to load the accounts referenced by the OWNERS of %s:%s", project, branch);
+      return Optional.empty();
+    }
+  }
+
+  private void loadInBackground(Key key, ProjectState projectState) {
+    if (!loading.add(key)) {
+      return;
+    }
+
+    try {
+      workQueue
+          .getDefaultQueue()
+          .execute(
+              () -> {
+                try (Repository repo = repoManager.openRepository(key.project())) {
+                  cache.get(key, () -> load(repo, projectState, key.branch()));
+                } catch (IOException | ExecutionException e) {
+                  logger.atWarning().withCause(e).log(
+                      "Unable to load the accounts referenced by the OWNERS of %s:%s",
+                      key.project(), key.branch().orElse(""));
+                } finally {
+                  loading.remove(key);
+                }
+              });
+    } catch (RejectedExecutionException e) {
+      loading.remove(key);
+    }
+  }
+
+  private OwnerAccounts load(Repository repo, ProjectState projectState, Optional<String> branch)
+      throws IOException, ExecutionException {
+    OwnerAccountsBuilder owners = new OwnerAccountsBuilder();
+    for (ProjectState state : projectState.tree()) {
+      Optional<ObjectId> configRevision = state.getConfig().getRevision();
+      if (configRevision.isEmpty()) {
+        continue;
+      }
+      if (state.getNameKey().equals(projectState.getNameKey())) {
+        addRootOwners(repo, configRevision.get(), owners);
+      } else {
+        try (Repository parentRepo = repoManager.openRepository(state.getNameKey())) {
+          addRootOwners(parentRepo, configRevision.get(), owners);
+        }
+      }
+    }
+    if (branch.isPresent()) {
+      Ref ref = repo.exactRef(RefNames.fullName(branch.get()));
+      if (ref != null) {
+        ImmutableMap<String, ObjectId> blobs =
+            branchOwnersFiles(
+                repo, BranchNameKey.create(projectState.getNameKey(), branch.get()), ref);
+        try (ObjectReader reader = repo.newObjectReader()) {
+          for (ObjectId blob : blobs.values()) {
+            owners.add(ownersOf(reader, blob));
+          }
+        }
+      }
+    }
+    return owners.build();
+  }
+
+  /** Adds the owners of the OWNERS file at the root of the commit, if any. */
+  private void addRootOwners(Repository repo, ObjectId commit, OwnerAccountsBuilder owners)
+      throws IOException, ExecutionException {
+    try (RevWalk rw = new RevWalk(repo);
+        TreeWalk tw =
+            TreeWalk.forPath(
+                rw.getObjectReader(), OwnersFingerprint.OWNERS, rw.parseTree(commit))) {
+      if (tw != null) {
+        owners.add(ownersOf(rw.getObjectReader(), tw.getObjectId(0)));
+      }
+    }
+  }
+
+  /**
+   * Returns the OWNERS files of the branch at its current tip, walking only the trees that differ
+   * from the tip they were last computed at.
+   */
+  private ImmutableMap<String, ObjectId> branchOwnersFiles(
+      Repository repo, BranchNameKey branch, Ref ref) throws IOException {
+    ObjectId tip = ref.getObjectId();
+    BranchOwnersFiles previous = branches.getIfPresent(branch);
+    if (previous != null && previous.tip().equals(tip)) {
+      return previous.blobs();
+    }
+
+    Map<String, ObjectId> blobs;
+    try {
+      blobs = diffOwnersFiles(repo, Optional.ofNullable(previous), tip);
+    } catch (MissingObjectException e) {
+      // The previous tip is gone, e.g. after a forced update and a gc
+      blobs = diffOwnersFiles(repo, Optional.empty(), tip);
+    }
+    BranchOwnersFiles current = new BranchOwnersFiles(tip, ImmutableMap.copyOf(blobs));
+    branches.put(branch, current);
+    return current.blobs();
+  }
+
+  static Map<String, ObjectId> diffOwnersFiles(
+      Repository repo, Optional<BranchOwnersFiles> previous, ObjectId tip) throws IOException {
+    Map<String, ObjectId> blobs =
+        new HashMap<>(previous.map(BranchOwnersFiles::blobs).orElse(ImmutableMap.of()));
+    try (RevWalk rw = new RevWalk(repo);
+        TreeWalk tw = new TreeWalk(rw.getObjectReader())) {
+      if (previous.isPresent()) {
+        tw.addTree(rw.parseTree(previous.get().tip()));
+      } else {
+        tw.addTree(new EmptyTreeIterator());
+      }
+      tw.addTree(rw.parseTree(tip));
+      tw.setRecursive(true);
+      tw.setFilter(
+          AndTreeFilter.create(
+              PathSuffixFilter.create(OwnersFingerprint.OWNERS), TreeFilter.ANY_DIFF));
+      while (tw.next()) {
+        if (!OwnersFingerprint.OWNERS.equals(tw.getNameString())) {
+          continue;
+        }
+        if (tw.getFileMode(1).getObjectType() == Constants.OBJ_BLOB) {
+          blobs.put(tw.getPathString(), tw.getObjectId(1));
+        } else {
+          blobs.remove(tw.getPathString());
+        }
+      }
+    }
+    return blobs;
+  }
+
+  /** Returns the owners of an OWNERS blob, parsing it and resolving them only once. */
+  private OwnerAccounts ownersOf(ObjectReader reader, ObjectId blob) throws ExecutionException {
+    return ownersFiles.get(
+        blob,
+        () -> {
+          Optional<OwnersConfig> config =
+              parser.getOwnersConfig(reader.open(blob, Constants.OBJ_BLOB).getBytes());
+          OwnerAccountsBuilder owners = new OwnerAccountsBuilder();
+          if (config.isEmpty()) {
+            return owners.build();
+          }
+
+          config.get().getOwners().forEach(owners::addName);
+          for (Matcher matcher : config.get().getMatchers().values()) {
+            matcher.getGroupOwners().forEach(owners::addName);
+          }
+          return owners.build();
+        });
+  }
+
+  private class OwnerAccountsBuilder {
+    private final ImmutableSet.Builder<Account.Id> ids = ImmutableSet.builder();
+    private boolean exhaustive = true;
+
+    void addName(String name) {
+      Set<Account.Id> resolved = accounts.find(name);
+      if (name.startsWith(GROUP_PREFIX) || resolved.isEmpty()) {
+        exhaustive = false;
+      }
+      ids.addAll(resolved);
+    }
+
+    void add(OwnerAccounts owners) {
+      ids.addAll(owners.accounts());
+      exhaustive &= owners.exhaustive();
+    }
+
+    OwnerAccounts build() {
+      return new OwnerAccounts(ids.build(), exhaustive);
+    }
+  }
+}
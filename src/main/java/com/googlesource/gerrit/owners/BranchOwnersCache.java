@@ -0,0 +1,285 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.extensions.events.GitReferenceUpdatedListener;
+import com.google.gerrit.extensions.registration.DynamicSet;
+import com.google.gerrit.metrics.Timer0;
+import com.google.gerrit.server.cache.CacheModule;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.project.ProjectState;
+import com.google.inject.Inject;
+import com.google.inject.Module;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import com.googlesource.gerrit.owners.common.Accounts;
+import com.googlesource.gerrit.owners.common.InvalidOwnersFileException;
+import com.googlesource.gerrit.owners.common.LabelDefinition;
+import com.googlesource.gerrit.owners.common.PathOwners;
+import com.googlesource.gerrit.owners.common.PathOwnersEntriesCache;
+import com.googlesource.gerrit.owners.common.PluginSettings;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Cache of the OWNERS configuration of a branch, shared by all the changes targeting it. Each entry
+ * is a snapshot of the branch at a given tip and `refs/meta/config` revisions of the project
+ * hierarchy and memoizes the ownership of the paths resolved so far, up to {@link
+ * #MAX_PATHS_PER_SNAPSHOT} of them, the least recently used being evicted first. Changes on the
+ * same branch therefore only resolve the paths that no other change touched before, which turns the
+ * evaluation of many changes (e.g. a dashboard with {@code has:approval_owners}) into a per-branch
+ * cost.
+ *
+ * <p>The label of a set of paths is the one that applies to the first of them in lexicographic
+ * order, so that it does not depend on the order in which the paths are resolved.
+ *
+ * <p>A snapshot is never reused once the branch or `refs/meta/config` move, since they are part of
+ * its key, but snapshots of the previous revisions are evicted as soon as the refs are updated
+ * instead of waiting for them to expire.
+ */
+@Singleton
+public class BranchOwnersCache implements GitReferenceUpdatedListener {
+  static final String CACHE_NAME = "owners_branch_snapshots";
+  static final int MAX_PATHS_PER_SNAPSHOT = 10_000;
+  /**
+   * Default number of snapshots kept. Snapshots grow after being inserted, hence they all weigh the
+   * same and the limit is kept low enough to bound the worst case of full snapshots.
+   */
+  static final long DEFAULT_MAX_SNAPSHOTS = 32;
+
+  static Module module() {
+    return new CacheModule() {
+      @Override
+      protected void configure() {
+        cache(CACHE_NAME, Key.class, Snapshot.class).maximumWeight(DEFAULT_MAX_SNAPSHOTS);
+        bind(BranchOwnersCache.class);
+        DynamicSet.bind(binder(), GitReferenceUpdatedListener.class).to(BranchOwnersCache.class);
+      }
+    };
+  }
+
+  record Key(Project.NameKey project, Optional<String> branch, String revision) {}
+
+  /** Ownership of a single path. */
+  private record PathOwnership(
+      Set<Account.Id> owners, Set<String> groupOwners, boolean allowsAutoApproval) {}
+
+  static class Snapshot {
+    private final Cache<String, PathOwnership> paths =
+        CacheBuilder.newBuilder().maximumSize(MAX_PATHS_PER_SNAPSHOT).build();
+    private final Cache<String, Optional<LabelDefinition>> labels =
+        CacheBuilder.newBuilder().maximumSize(MAX_PATHS_PER_SNAPSHOT).build();
+  }
+
+  private final Cache<Key, Snapshot> cache;
+  private final Accounts accounts;
+  private final GitRepositoryManager repoManager;
+  private final PluginSettings pluginSettings;
+  private final PathOwnersEntriesCache entriesCache;
+  private final OwnersMetrics metrics;
+
+  @Inject
+  BranchOwnersCache(
+      @Named(CACHE_NAME) Cache<Key, Snapshot> cache,
+      Accounts accounts,
+      GitRepositoryManager repoManager,
+      PluginSettings pluginSettings,
+      PathOwnersEntriesCache entriesCache,
+      OwnersMetrics metrics) {
+    this.cache = cache;
+    this.accounts = accounts;
+    this.repoManager = repoManager;
+    this.pluginSettings = pluginSettings;
+    this.entriesCache = entriesCache;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Resolves the ownership of the paths from the snapshot of the branch, loading only the paths
+   * that were not resolved yet.
+   *
+   * @param repo repository of the project
+   * @param projectState project the paths belong to
+   * @param branch branch to read the OWNERS files from, or empty when disabled for the branch
+   * @param paths paths to resolve
+   * @return ownership of the paths
+   * @throws IOException when the branch cannot be read
+   * @throws InvalidOwnersFileException when an OWNERS file cannot be parsed
+   */
+  public ResolvedOwnership resolve(
+      Repository repo, ProjectState projectState, Optional<String> branch, Set<String> paths)
+      throws IOException, InvalidOwnersFileException {
+    Key key =
+        new Key(
+            projectState.getNameKey(),
+            branch,
+            OwnersFingerprint.branchRevision(repo, projectState, branch));
+    Snapshot snapshot = cache.asMap().computeIfAbsent(key, k -> new Snapshot());
+    return resolve(snapshot, true, repo, projectState, branch, paths);
+  }
+
+  /**
+   * Resolves the ownership of the paths like {@link #resolve(Repository, ProjectState, Optional,
+   * Set)} but without memoizing the paths that were not resolved yet, nor creating the snapshot of
+   * the branch. Meant for arbitrary paths, e.g. requested by users, that no change may ever touch
+   * and that would otherwise evict the ones of the changes.
+   *
+   * @param repo repository of the project
+   * @param projectState project the paths belong to
+   * @param branch branch to read the OWNERS files from, or empty when disabled for the branch
+   * @param paths paths to resolve
+   * @return ownership of the paths
+   * @throws IOException when the branch cannot be read
+   * @throws InvalidOwnersFileException when an OWNERS file cannot be parsed
+   */
+  public ResolvedOwnership resolveWithoutMemoizing(
+      Repository repo, ProjectState projectState, Optional<String> branch, Set<String> paths)
+      throws IOException, InvalidOwnersFileException {
+    Key key =
+        new Key(
+            projectState.getNameKey(),
+            branch,
+            OwnersFingerprint.branchRevision(repo, projectState, branch));
+    Snapshot snapshot = cache.getIfPresent(key);
+    return resolve(
+        snapshot == null ? new Snapshot() : snapshot, false, repo, projectState, branch, paths);
+  }
+
+  private ResolvedOwnership resolve(
+      Snapshot snapshot,
+      boolean memoize,
+      Repository repo,
+      ProjectState projectState,
+      Optional<String> branch,
+      Set<String> paths)
+      throws InvalidOwnersFileException {
+    Map<String, PathOwnership> ownerships = new HashMap<>(snapshot.paths.getAllPresent(paths));
+    Optional<String> labelPath = paths.stream().min(Comparator.naturalOrder());
+    Optional<LabelDefinition> label = Optional.empty();
+    boolean missingLabel = false;
+    if (labelPath.isPresent()) {
+      Optional<LabelDefinition> cachedLabel = snapshot.labels.getIfPresent(labelPath.get());
+      missingLabel = cachedLabel == null;
+      label = missingLabel ? Optional.empty() : cachedLabel;
+    }
+
+    Set<String> missingPaths = Sets.difference(paths, ownerships.keySet()).immutableCopy();
+    if (!missingPaths.isEmpty() || missingLabel) {
+      boolean loadedLabel = missingLabel;
+      metrics.countConfigLoads.increment();
+      try (Timer0.Context ctx = metrics.loadConfig.start()) {
+        List<Project.NameKey> parents = PathOwners.getParents(projectState);
+        if (!missingPaths.isEmpty()) {
+          PathOwners pathOwners = load(repo, projectState, parents, branch, missingPaths);
+          Map<String, Set<Account.Id>> fileOwners = pathOwners.getFileOwners();
+          Map<String, Set<String>> fileGroupOwners = pathOwners.getFileGroupOwners();
+          Set<String> filesAllowedAutoApproval = pathOwners.getFileOwnersAllowedAutoApproval();
+          for (String path : missingPaths) {
+            PathOwnership ownership =
+                new PathOwnership(
+                    fileOwners.get(path),
+                    fileGroupOwners.get(path),
+                    filesAllowedAutoApproval.contains(path));
+            if (memoize) {
+              snapshot.paths.put(path, ownership);
+            }
+            ownerships.put(path, ownership);
+          }
+          if (missingLabel && missingPaths.equals(ImmutableSet.of(labelPath.get()))) {
+            label = pathOwners.getLabel();
+            missingLabel = false;
+          }
+        }
+        if (missingLabel) {
+          // PathOwners only reports the label of one of its paths, hence the label path on its own
+          label =
+              load(repo, projectState, parents, branch, ImmutableSet.of(labelPath.get()))
+                  .getLabel();
+        }
+        if (memoize && loadedLabel) {
+          snapshot.labels.put(labelPath.get(), label);
+        }
+      }
+    }
+
+    Map<String, Set<Account.Id>> fileOwners = new HashMap<>();
+    Map<String, Set<String>> fileGroupOwners = new HashMap<>();
+    Set<String> filesAllowedAutoApproval = new HashSet<>();
+    for (String path : paths) {
+      PathOwnership ownership = ownerships.get(path);
+      if (ownership.owners() != null) {
+        fileOwners.put(path, ownership.owners());
+      }
+      if (ownership.groupOwners() != null) {
+        fileGroupOwners.put(path, ownership.groupOwners());
+      }
+      if (ownership.allowsAutoApproval()) {
+        filesAllowedAutoApproval.add(path);
+      }
+    }
+    return new ResolvedOwnership(
+        paths, fileOwners, fileGroupOwners, filesAllowedAutoApproval, label);
+  }
+
+  @Override
+  public void onGitReferenceUpdated(GitReferenceUpdatedListener.Event event) {
+    Project.NameKey project = Project.nameKey(event.getProjectName());
+    String refName = event.getRefName();
+    if (RefNames.REFS_CONFIG.equals(refName)) {
+      // The OWNERS of every branch of the project may have changed
+      cache.asMap().keySet().removeIf(key -> key.project().equals(project));
+    } else if (refName.startsWith(RefNames.REFS_HEADS)) {
+      Optional<String> branch = Optional.of(refName);
+      cache
+          .asMap()
+          .keySet()
+          .removeIf(key -> key.project().equals(project) && key.branch().equals(branch));
+    }
+  }
+
+  private PathOwners load(
+      Repository repo,
+      ProjectState projectState,
+      List<Project.NameKey> parents,
+      Optional<String> branch,
+      Set<String> paths)
+      throws InvalidOwnersFileException {
+    return new PathOwners(
+        accounts,
+        repoManager,
+        repo,
+        parents,
+        branch,
+        paths,
+        pluginSettings.expandGroups(),
+        projectState.getName(),
+        entriesCache,
+        pluginSettings.globalLabel());
+  }
+}
@@ -0,0 +1,164 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.extensions.annotations.PluginName;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.lifecycle.LifecycleModule;
+import com.google.gerrit.server.config.ConfigUtil;
+import com.google.gerrit.server.config.PluginConfigFactory;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.eclipse.jgit.lib.Config;
+
+/**
+ * Runs the I/O-heavy parts of the {@code already-approved-by_owners} copy condition of an upload
+ * (patch-set delta and, when an approval needs it, ownership of the files of the previous
+ * patch-set) on a dedicated work queue, so that they are computed once for all the approvals to
+ * copy.
+ *
+ * <p>Each upload is given a deadline when its first approval is evaluated: the approvals whose
+ * prefetched work is not complete by then are not copied.
+ */
+@Singleton
+class CopyConditionPrefetcher implements LifecycleListener {
+  static class Module extends LifecycleModule {
+    @Override
+    protected void configure() {
+      listener().to(CopyConditionPrefetcher.class);
+    }
+  }
+
+  static final String COPY_CONDITION = "copyCondition";
+  static final String THREADS = "threads";
+  static final String TIMEOUT = "timeout";
+  static final long DEFAULT_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  /** Work prefetched for an upload, with the deadline for all its approvals. */
+  private static class Upload {
+    private final long deadlineNanos;
+    private final ConcurrentMap<String, Future<?>> tasks = new ConcurrentHashMap<>();
+
+    private Upload(long timeoutMs) {
+      this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+  }
+
+  private final WorkQueue workQueue;
+  private final int threads;
+  private final long timeoutMs;
+  private final Cache<PatchSetDeltaCache.Key, Upload> uploads;
+
+  private volatile ExecutorService executor;
+
+  @Inject
+  CopyConditionPrefetcher(
+      @PluginName String pluginName, PluginConfigFactory pluginConfigFactory, WorkQueue workQueue) {
+    Config config = pluginConfigFactory.getGlobalPluginConfig(pluginName);
+    this.threads = config.getInt(pluginName, COPY_CONDITION, THREADS, 0);
+    this.timeoutMs =
+        ConfigUtil.getTimeUnit(
+            config, pluginName, COPY_CONDITION, TIMEOUT, DEFAULT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    this.workQueue = workQueue;
+    // Uploads are kept past their deadline so that their late approvals are not given a new one
+    this.uploads =
+        CacheBuilder.newBuilder()
+            .expireAfterWrite(timeoutMs + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS)
+            .build();
+  }
+
+  @Override
+  public void start() {
+    if (threads > 0) {
+      executor = workQueue.createQueue(threads, "Owners-CopyCondition");
+      logger.atInfo().log(
+          "Copy condition prefetch enabled with %d thread(s) and a %d ms deadline per upload.",
+          threads, timeoutMs);
+    }
+  }
+
+  @Override
+  public void stop() {
+    ExecutorService current = executor;
+    if (current != null) {
+      executor = null;
+      current.shutdownNow();
+    }
+  }
+
+  boolean isEnabled() {
+    return executor != null;
+  }
+
+  /**
+   * Schedules a task of the upload, unless it was already scheduled by another of its approvals,
+   * and returns its future. When the prefetch is disabled or the work queue is not available the
+   * task runs on the calling thread.
+   */
+  @SuppressWarnings("unchecked")
+  <T> Future<T> prefetch(PatchSetDeltaCache.Key upload, String task, Callable<T> callable)
+      throws ExecutionException {
+    FutureTask<T> newTask = new FutureTask<>(callable);
+    ExecutorService current = executor;
+    if (current == null) {
+      newTask.run();
+      return newTask;
+    }
+
+    Upload prefetched = uploads.get(upload, () -> new Upload(timeoutMs));
+    Future<T> future = (Future<T>) prefetched.tasks.putIfAbsent(task, newTask);
+    if (future != null) {
+      return future;
+    }
+
+    try {
+      current.execute(newTask);
+    } catch (RejectedExecutionException e) {
+      newTask.run();
+    }
+    return newTask;
+  }
+
+  /**
+   * Waits for a prefetched task, at most until the deadline of its upload.
+   *
+   * @throws TimeoutException when the deadline of the upload has passed
+   */
+  <T> T await(PatchSetDeltaCache.Key upload, Future<T> future)
+      throws ExecutionException, InterruptedException, TimeoutException {
+    Upload prefetched = uploads.getIfPresent(upload);
+    long remainingNanos =
+        prefetched == null
+            ? TimeUnit.MILLISECONDS.toNanos(timeoutMs)
+            : prefetched.deadlineNanos - System.nanoTime();
+    return future.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+  }
+}
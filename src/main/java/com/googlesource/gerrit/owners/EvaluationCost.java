@@ -0,0 +1,72 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+/**
+ * Running estimate of the cost of an owners evaluation, reported by the query predicates so that
+ * Gerrit evaluates the cheaper predicates of an expression first.
+ *
+ * <p>The cost of a predicate is asked before knowing which changes it will be matched against,
+ * therefore it is estimated from the previous evaluations: answers found in a cache and projects
+ * without OWNERS are cheap, the others cost more the more files the change has. Even a cached
+ * answer needs the change to be loaded, therefore the reported cost never goes below {@link #MIN},
+ * which keeps the owners predicates after the cheap built-in ones, e.g. the ones answered by the
+ * index, whatever the previous evaluations.
+ */
+class EvaluationCost {
+  static final int MIN = 3;
+  static final int CACHED = 1;
+  static final int NO_OWNERS = 2;
+  static final int MIN_COMPUTED = 5;
+  static final int MAX = 20;
+  static final int FILES_PER_COST_UNIT = 50;
+
+  /** Weight of the last evaluation, the estimate follows roughly the last 20 evaluations. */
+  private static final double WEIGHT = 0.05;
+
+  private volatile double estimate;
+
+  EvaluationCost(int initialCost) {
+    this.estimate = initialCost;
+  }
+
+  /** The evaluation has been answered from a cache. */
+  void cached() {
+    record(CACHED);
+  }
+
+  /** The evaluation found no OWNERS to apply. */
+  void noOwners() {
+    record(NO_OWNERS);
+  }
+
+  /** The evaluation resolved the ownership of the given number of files. */
+  void computed(int files) {
+    record(Math.min(MAX, MIN_COMPUTED + files / FILES_PER_COST_UNIT));
+  }
+
+  /** The evaluation has been delegated to another evaluation with the given estimated cost. */
+  void evaluated(int cost) {
+    record(cost);
+  }
+
+  int get() {
+    return Math.max(MIN, (int) Math.round(estimate));
+  }
+
+  private synchronized void record(int cost) {
+    estimate += WEIGHT * (cost - estimate);
+  }
+}
@@ -0,0 +1,113 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.gerrit.entities.Patch;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.server.patch.DiffNotAvailableException;
+import com.google.gerrit.server.patch.DiffOperations;
+import com.google.gerrit.server.patch.DiffOptions;
+import com.google.gerrit.server.patch.filediff.FileDiffOutput;
+import com.google.gerrit.server.patch.gitdiff.ModifiedFile;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * Resolves the paths modified by a patch-set for ownership resolution. Ownership only depends on
+ * the names of the touched paths, therefore a tree-level listing of the modified files is used
+ * instead of the full file diffs whenever possible.
+ */
+public final class ModifiedPaths {
+  private static final boolean ENABLE_RENAME_DETECTION = true;
+
+  /**
+   * Returns the paths modified by the revision against its default base, that is, the new path of
+   * every modified file and also the old path of renamed files. Magic files (e.g. the commit
+   * message) are never included.
+   *
+   * @param diffOperations diff operations
+   * @param repository repository of the project
+   * @param project project of the revision
+   * @param revision revision to list the modified paths for
+   * @return set of modified paths
+   */
+  public static Set<String> againstParent(
+      DiffOperations diffOperations,
+      Repository repository,
+      Project.NameKey project,
+      ObjectId revision)
+      throws IOException, DiffNotAvailableException {
+    requireNonNull(project, "project");
+    requireNonNull(revision, "revision");
+
+    try (RevWalk rw = new RevWalk(repository)) {
+      RevCommit commit = rw.parseCommit(revision);
+      if (commit.getParentCount() != 1) {
+        // The default base of merge commits is the auto-merge commit and initial commits are
+        // compared against the empty tree: only the full diff knows how to deal with both.
+        return fromFileDiffs(
+            diffOperations.listModifiedFilesAgainstParent(
+                project, revision, 0, DiffOptions.DEFAULTS));
+      }
+
+      return fromModifiedFiles(
+          diffOperations.loadModifiedFilesIfNecessary(
+              project,
+              commit.getParent(0),
+              commit,
+              rw,
+              repository.getConfig(),
+              ENABLE_RENAME_DETECTION));
+    }
+  }
+
+  public static Set<String> fromFileDiffs(Map<String, FileDiffOutput> fileDiffs) {
+    Set<String> paths = new HashSet<>();
+    fileDiffs.forEach((path, diff) -> addPaths(paths, path, diff.changeType(), diff.oldPath()));
+    return paths;
+  }
+
+  static Set<String> fromModifiedFiles(Map<String, ModifiedFile> modifiedFiles) {
+    Set<String> paths = new HashSet<>();
+    modifiedFiles.forEach(
+        (path, modifiedFile) ->
+            addPaths(paths, path, modifiedFile.changeType(), modifiedFile.oldPath()));
+    return paths;
+  }
+
+  private static void addPaths(
+      Set<String> paths, String path, Patch.ChangeType changeType, Optional<String> oldPath) {
+    if (Patch.isMagic(path)) {
+      return;
+    }
+
+    paths.add(path);
+    // If a file was moved then approvals are needed for both the old and the new path
+    if (changeType == Patch.ChangeType.RENAMED) {
+      oldPath.ifPresent(paths::add);
+    }
+  }
+
+  private ModifiedPaths() {}
+}
@@ -18,6 +18,8 @@ package com.googlesource.gerrit.owners;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.gerrit.extensions.annotations.Listen;
+import com.google.gerrit.server.account.AccountCache;
+import com.google.gerrit.server.patch.DiffOperations;
 import com.google.gerrit.server.rules.prolog.PredicateProvider;
 import com.google.inject.Inject;
 import com.googlesource.gerrit.owners.common.Accounts;
@@ -32,8 +34,10 @@ public class OwnerPredicateProvider implements PredicateProvider {
       Accounts accounts,
       PluginSettings config,
       PathOwnersEntriesCache cache,
-      OwnersMetrics metrics) {
-    OwnersStoredValues.initialize(accounts, config, cache, metrics);
+      OwnersMetrics metrics,
+      DiffOperations diffOperations,
+      AccountCache accountCache) {
+    OwnersStoredValues.initialize(accounts, config, cache, metrics, diffOperations, accountCache);
   }
 
   @Override
@@ -0,0 +1,47 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Groups files by their set of owners. A whole directory tree usually shares a single OWNERS file,
+ * therefore the thousands of files of a large change typically map to a handful of distinct owner
+ * sets, and approvals need to be checked once per set rather than once per file.
+ */
+public final class OwnerSets {
+
+  /**
+   * Returns the files grouped by their owners.
+   *
+   * @param fileOwners owners of each file
+   * @return map of each distinct set of owners to the files it owns
+   */
+  public static <T> Map<Set<T>, List<String>> groupByOwners(Map<String, Set<T>> fileOwners) {
+    Map<Set<T>, List<String>> filesByOwners = new HashMap<>();
+    for (Map.Entry<String, Set<T>> fileOwner : fileOwners.entrySet()) {
+      filesByOwners
+          .computeIfAbsent(fileOwner.getValue(), owners -> new ArrayList<>())
+          .add(fileOwner.getKey());
+    }
+    return filesByOwners;
+  }
+
+  private OwnerSets() {}
+}
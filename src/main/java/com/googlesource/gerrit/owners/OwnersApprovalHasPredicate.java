@@ -14,7 +14,7 @@
 
 package com.googlesource.gerrit.owners;
 
-import com.google.gerrit.entities.SubmitRecord;
+import com.google.common.flogger.FluentLogger;
 import com.google.gerrit.extensions.annotations.PluginName;
 import com.google.gerrit.server.project.SubmitRequirementEvaluationException;
 import com.google.gerrit.server.query.change.ChangeData;
@@ -22,15 +22,17 @@ import com.google.gerrit.server.query.change.SubmitRequirementPredicate;
 import com.google.gerrit.server.rules.SubmitRule;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import java.util.Optional;
+import com.googlesource.gerrit.owners.common.InvalidOwnersFileException;
 
 /**
  * A predicate that checks if a given change has all necessary owner approvals. Matches with changes
  * that have an owner approval. This predicate wraps the existing {@link OwnersSubmitRequirement}
- * (that implements the {@link SubmitRule}) to perform the logic.
+ * (that implements the {@link SubmitRule}) to perform the logic, through its short-circuit
+ * evaluation that stops at the first path missing an owner approval.
  */
 @Singleton
 class OwnersApprovalHasPredicate extends SubmitRequirementPredicate {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
 
   private final OwnersSubmitRequirement ownersSubmitRequirement;
 
@@ -43,24 +45,20 @@ class OwnersApprovalHasPredicate extends SubmitRequirementPredicate {
 
   @Override
   public boolean match(ChangeData cd) {
-    Optional<SubmitRecord> submitRecord = ownersSubmitRequirement.evaluate(cd);
-    return submitRecord
-        .map(
-            sr -> {
-              if (sr.status == SubmitRecord.Status.RULE_ERROR) {
-                throw new SubmitRequirementEvaluationException(sr.errorMessage);
-              }
-              return sr.status == SubmitRecord.Status.OK;
-            })
-        .orElse(true);
+    try {
+      return ownersSubmitRequirement.isApproved(cd);
+    } catch (InvalidOwnersFileException e) {
+      logger.atSevere().withCause(e).log("Reading/parsing OWNERS file error.");
+      throw new SubmitRequirementEvaluationException(e.getMessage());
+    }
   }
 
   /**
-   * Assuming that it is similarly expensive to calculate this as the 'code-owners' plugin hence
-   * giving the same value.
+   * Follows the cost of the last evaluations, starting from the same value as the 'code-owners'
+   * plugin.
    */
   @Override
   public int getCost() {
-    return 10;
+    return ownersSubmitRequirement.getCost();
   }
 }
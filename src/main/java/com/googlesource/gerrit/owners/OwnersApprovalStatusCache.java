@@ -0,0 +1,133 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import com.google.common.cache.Cache;
+import com.google.common.collect.ImmutableSet;
+import com.google.gerrit.entities.Change;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.server.cache.CacheModule;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.gerrit.server.project.ProjectState;
+import com.google.inject.Inject;
+import com.google.inject.Module;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import com.googlesource.gerrit.owners.common.PluginSettings;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Owners approval status of the open changes, written by {@link OwnersApprovalStatusIndexer}
+ * whenever a change is reindexed. A status is only returned while the change and its OWNERS are in
+ * the same state they were indexed with, that is, same current patch-set, same last update and
+ * same OWNERS revision of the target branch, so that it can answer queries without evaluating the
+ * OWNERS again.
+ */
+@Singleton
+class OwnersApprovalStatusCache {
+  static final String CACHE_NAME = "owners_approval_status";
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  static Module module() {
+    return new CacheModule() {
+      @Override
+      protected void configure() {
+        cache(CACHE_NAME, Change.Id.class, Status.class);
+        bind(OwnersApprovalStatusCache.class);
+      }
+    };
+  }
+
+  /** Status of a change, as computed when it was last indexed. */
+  record Status(
+      int patchSet,
+      Instant lastUpdatedOn,
+      String ownersRevision,
+      ImmutableSet<String> pendingPaths) {
+    boolean isApproved() {
+      return pendingPaths.isEmpty();
+    }
+  }
+
+  private final Cache<Change.Id, Status> cache;
+  private final GitRepositoryManager repoManager;
+  private final ProjectCache projectCache;
+  private final PluginSettings pluginSettings;
+
+  @Inject
+  OwnersApprovalStatusCache(
+      @Named(CACHE_NAME) Cache<Change.Id, Status> cache,
+      GitRepositoryManager repoManager,
+      ProjectCache projectCache,
+      PluginSettings pluginSettings) {
+    this.cache = cache;
+    this.repoManager = repoManager;
+    this.projectCache = projectCache;
+    this.pluginSettings = pluginSettings;
+  }
+
+  Optional<Status> get(Change change) {
+    Status status = cache.getIfPresent(change.getId());
+    if (status == null
+        || status.patchSet() != change.currentPatchSetId().get()
+        || !status.lastUpdatedOn().equals(change.getLastUpdatedOn())
+        || !ownersRevision(change).map(status.ownersRevision()::equals).orElse(false)) {
+      return Optional.empty();
+    }
+    return Optional.of(status);
+  }
+
+  void put(Change change, String ownersRevision, ImmutableSet<String> pendingPaths) {
+    cache.put(
+        change.getId(),
+        new Status(
+            change.currentPatchSetId().get(),
+            change.getLastUpdatedOn(),
+            ownersRevision,
+            pendingPaths));
+  }
+
+  void evict(Change.Id changeId) {
+    cache.invalidate(changeId);
+  }
+
+  /**
+   * Returns the revision of the OWNERS that apply to the change: the configuration of the project
+   * and of its parents and the tip of the target branch, or empty when it cannot be computed.
+   */
+  Optional<String> ownersRevision(Change change) {
+    Optional<ProjectState> projectState = projectCache.get(change.getProject());
+    if (projectState.isEmpty()) {
+      return Optional.empty();
+    }
+
+    String branch = change.getDest().branch();
+    Optional<String> ownersBranch =
+        pluginSettings.isBranchDisabled(branch) ? Optional.empty() : Optional.of(branch);
+    try (Repository repo = repoManager.openRepository(change.getProject())) {
+      return Optional.of(
+          OwnersFingerprint.branchRevision(repo, projectState.get(), ownersBranch));
+    } catch (IOException e) {
+      logger.atWarning().withCause(e).log(
+          "Unable to compute the OWNERS revision of change #%d", change.getId().get());
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,174 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.annotations.PluginName;
+import com.google.gerrit.extensions.events.ChangeIndexedListener;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.extensions.registration.DynamicSet;
+import com.google.gerrit.lifecycle.LifecycleModule;
+import com.google.gerrit.server.config.PluginConfigFactory;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.gerrit.server.query.change.ChangeData;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.owners.common.InvalidOwnersFileException;
+import com.googlesource.gerrit.owners.common.PluginSettings;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import org.eclipse.jgit.lib.Config;
+
+/**
+ * Stores the owners approval status of a change, together with the paths still pending an owner
+ * approval, every time the change is reindexed. The status is computed by a dedicated work queue,
+ * never by the indexing thread, and only when the owners submit requirement is enabled and the
+ * target branch has OWNERS. Changes that do not fit in the queue are not stored and are simply
+ * evaluated when queried.
+ */
+@Singleton
+class OwnersApprovalStatusIndexer implements ChangeIndexedListener, LifecycleListener {
+  static class Module extends LifecycleModule {
+    @Override
+    protected void configure() {
+      install(OwnersApprovalStatusCache.module());
+      DynamicSet.bind(binder(), ChangeIndexedListener.class).to(OwnersApprovalStatusIndexer.class);
+      listener().to(OwnersApprovalStatusIndexer.class);
+    }
+  }
+
+  static final String APPROVAL_STATUS = "approvalStatus";
+  static final String THREADS = "threads";
+  static final String MAX_QUEUE = "maxQueue";
+  static final int DEFAULT_THREADS = 1;
+  static final int DEFAULT_MAX_QUEUE = 1000;
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private final WorkQueue workQueue;
+  private final ChangeData.Factory changeDataFactory;
+  private final OwnersSubmitRequirement ownersSubmitRequirement;
+  private final OwnersApprovalStatusCache statusCache;
+  private final BranchOwnerAccountsCache ownerAccountsCache;
+  private final boolean submitRequirementEnabled;
+  private final int threads;
+  private final int maxQueue;
+  private final Set<Change.Id> queued = ConcurrentHashMap.newKeySet();
+
+  private volatile ExecutorService executor;
+
+  @Inject
+  OwnersApprovalStatusIndexer(
+      @PluginName String pluginName,
+      PluginConfigFactory pluginConfigFactory,
+      PluginSettings pluginSettings,
+      WorkQueue workQueue,
+      ChangeData.Factory changeDataFactory,
+      OwnersSubmitRequirement ownersSubmitRequirement,
+      OwnersApprovalStatusCache statusCache,
+      BranchOwnerAccountsCache ownerAccountsCache) {
+    Config config = pluginConfigFactory.getGlobalPluginConfig(pluginName);
+    this.threads = config.getInt(pluginName, APPROVAL_STATUS, THREADS, DEFAULT_THREADS);
+    this.maxQueue = config.getInt(pluginName, APPROVAL_STATUS, MAX_QUEUE, DEFAULT_MAX_QUEUE);
+    this.submitRequirementEnabled = pluginSettings.enableSubmitRequirement();
+    this.workQueue = workQueue;
+    this.changeDataFactory = changeDataFactory;
+    this.ownersSubmitRequirement = ownersSubmitRequirement;
+    this.statusCache = statusCache;
+    this.ownerAccountsCache = ownerAccountsCache;
+  }
+
+  @Override
+  public void start() {
+    if (submitRequirementEnabled && threads > 0) {
+      executor = workQueue.createQueue(threads, "Owners-ApprovalStatus");
+    }
+  }
+
+  @Override
+  public void stop() {
+    ExecutorService current = executor;
+    if (current != null) {
+      executor = null;
+      current.shutdownNow();
+    }
+  }
+
+  @Override
+  public void onChangeIndexed(String projectName, int id) {
+    ExecutorService current = executor;
+    if (current == null) {
+      return;
+    }
+
+    Change.Id changeId = Change.id(id);
+    // The stored status is stale from now on, it is replaced once evaluated again
+    statusCache.evict(changeId);
+    if (!queued.add(changeId)) {
+      return;
+    }
+    if (queued.size() > maxQueue) {
+      queued.remove(changeId);
+      return;
+    }
+
+    try {
+      current.execute(
+          () -> {
+            queued.remove(changeId);
+            store(Project.nameKey(projectName), changeId);
+          });
+    } catch (RejectedExecutionException e) {
+      queued.remove(changeId);
+    }
+  }
+
+  @Override
+  public void onChangeDeleted(int id) {
+    statusCache.evict(Change.id(id));
+  }
+
+  private void store(Project.NameKey project, Change.Id changeId) {
+    try {
+      ChangeData cd = changeDataFactory.create(project, changeId);
+      Change change = cd.change();
+      if (change == null
+          || change.isClosed()
+          || !ownerAccountsCache.hasOwners(project, change.getDest().branch())) {
+        return;
+      }
+
+      // Taken before the evaluation, so that an OWNERS update in between makes the status stale
+      Optional<String> ownersRevision = statusCache.ownersRevision(change);
+      if (ownersRevision.isPresent()) {
+        statusCache.put(change, ownersRevision.get(), ownersSubmitRequirement.pendingPaths(cd));
+      }
+    } catch (InvalidOwnersFileException e) {
+      logger.atWarning().withCause(e).log(
+          "Project '%s': unable to store the owners approval status of change #%d.",
+          project, changeId.get());
+    } catch (RuntimeException e) {
+      // The status is evaluated again when queried
+      logger.atSevere().withCause(e).log(
+          "Project '%s': unable to evaluate the owners approval status of change #%d.",
+          project, changeId.get());
+    }
+  }
+}
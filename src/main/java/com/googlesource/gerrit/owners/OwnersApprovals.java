@@ -0,0 +1,87 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import static com.googlesource.gerrit.owners.OwnersSubmitRequirement.hasSufficientApproval;
+
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.PatchSetApproval;
+import com.googlesource.gerrit.owners.OwnersSubmitRequirement.LabelAndScore;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Approvals of a change evaluated against the owners label. The accounts that voted are interned
+ * into dense indices and the ones that cast a sufficient vote are precomputed into a {@link BitSet}
+ * so that checking a set of file owners is a single intersection.
+ *
+ * <p>It produces the same outcome as {@link OwnersSubmitRequirement#isApprovalMissing}, which is
+ * kept as the reference implementation.
+ */
+class OwnersApprovals {
+  private final Map<Account.Id, Integer> voters;
+  private final BitSet sufficientApprovers;
+
+  static OwnersApprovals create(
+      Map<Account.Id, List<PatchSetApproval>> approvalsByAccount,
+      Account.Id uploader,
+      LabelAndScore ownersLabel) {
+    Map<Account.Id, Integer> voters = new HashMap<>(approvalsByAccount.size());
+    BitSet sufficientApprovers = new BitSet(approvalsByAccount.size());
+    for (Map.Entry<Account.Id, List<PatchSetApproval>> approvals : approvalsByAccount.entrySet()) {
+      Account.Id voter = approvals.getKey();
+      int index = voters.size();
+      voters.put(voter, index);
+      for (PatchSetApproval approval : approvals.getValue()) {
+        if (hasSufficientApproval(approval, ownersLabel, voter, uploader)) {
+          sufficientApprovers.set(index);
+          break;
+        }
+      }
+    }
+    return new OwnersApprovals(voters, sufficientApprovers);
+  }
+
+  private OwnersApprovals(Map<Account.Id, Integer> voters, BitSet sufficientApprovers) {
+    this.voters = voters;
+    this.sufficientApprovers = sufficientApprovers;
+  }
+
+  /**
+   * Converts a set of owners into the bitset of their voter indices. Owners that did not vote are
+   * not represented as they can never provide an approval.
+   */
+  BitSet toBitSet(Set<Account.Id> owners) {
+    BitSet bits = new BitSet(voters.size());
+    for (Account.Id owner : owners) {
+      Integer index = voters.get(owner);
+      if (index != null) {
+        bits.set(index);
+      }
+    }
+    return bits;
+  }
+
+  boolean isApprovalMissing(BitSet owners) {
+    return !owners.intersects(sufficientApprovers);
+  }
+
+  boolean isApprovalMissing(Set<Account.Id> owners) {
+    return isApprovalMissing(toBitSet(owners));
+  }
+}
@@ -0,0 +1,211 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.annotations.PluginName;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.lifecycle.LifecycleModule;
+import com.google.gerrit.metrics.Description;
+import com.google.gerrit.metrics.MetricMaker;
+import com.google.gerrit.metrics.Timer0;
+import com.google.gerrit.server.config.PluginConfigFactory;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.gerrit.server.query.change.ChangeData;
+import com.google.gerrit.server.query.change.InternalChangeQuery;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.owners.common.PluginSettings;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.jgit.lib.Config;
+
+/**
+ * Evaluates the owners of changes in the background, so that the caches used by the submit rule
+ * (diff, OWNERS resolution and submit results) are already warm when the change is first loaded by
+ * a user. Changes are evaluated by a dedicated work queue whose number of pending changes is
+ * bounded: changes that do not fit are dropped and simply evaluated on demand. The warm-up only
+ * runs when the owners submit requirement is enabled, and the updates of a branch whose open
+ * changes are still waiting to be listed are coalesced into a single listing.
+ */
+@Singleton
+class OwnersCacheWarmer implements LifecycleListener {
+  static class Module extends LifecycleModule {
+    @Override
+    protected void configure() {
+      listener().to(OwnersCacheWarmer.class);
+    }
+  }
+
+  static final String WARMUP = "warmup";
+  static final String THREADS = "threads";
+  static final String MAX_QUEUE = "maxQueue";
+  static final int DEFAULT_MAX_QUEUE = 1000;
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private final WorkQueue workQueue;
+  private final ChangeData.Factory changeDataFactory;
+  private final Provider<InternalChangeQuery> queryProvider;
+  private final OwnersSubmitRequirement ownersSubmitRequirement;
+  private final OwnersMetrics metrics;
+  private final boolean submitRequirementEnabled;
+  private final int threads;
+  private final int maxQueue;
+  private final Set<Change.Id> queued = ConcurrentHashMap.newKeySet();
+  private final Set<BranchNameKey> queuedBranches = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger queueDepth = new AtomicInteger();
+
+  private volatile ExecutorService executor;
+
+  @Inject
+  OwnersCacheWarmer(
+      @PluginName String pluginName,
+      PluginConfigFactory pluginConfigFactory,
+      WorkQueue workQueue,
+      ChangeData.Factory changeDataFactory,
+      Provider<InternalChangeQuery> queryProvider,
+      OwnersSubmitRequirement ownersSubmitRequirement,
+      OwnersMetrics metrics,
+      PluginSettings pluginSettings,
+      MetricMaker metricMaker) {
+    Config config = pluginConfigFactory.getGlobalPluginConfig(pluginName);
+    this.threads = config.getInt(pluginName, WARMUP, THREADS, 0);
+    this.maxQueue = config.getInt(pluginName, WARMUP, MAX_QUEUE, DEFAULT_MAX_QUEUE);
+    this.workQueue = workQueue;
+    this.changeDataFactory = changeDataFactory;
+    this.queryProvider = queryProvider;
+    this.ownersSubmitRequirement = ownersSubmitRequirement;
+    this.metrics = metrics;
+    this.submitRequirementEnabled = pluginSettings.enableSubmitRequirement();
+    metricMaker.newCallbackMetric(
+        "warmup_queue_depth",
+        Integer.class,
+        new Description("Number of changes waiting for the owners evaluation warm-up")
+            .setGauge()
+            .setUnit("changes"),
+        queueDepth::get);
+  }
+
+  @Override
+  public void start() {
+    if (threads > 0 && !submitRequirementEnabled) {
+      logger.atWarning().log(
+          "Owners evaluation warm-up disabled: `owners.enableSubmitRequirement` is not set.");
+    } else if (threads > 0) {
+      executor = workQueue.createQueue(threads, "Owners-Warmup");
+      logger.atInfo().log(
+          "Owners evaluation warm-up enabled with %d thread(s) and up to %d queued change(s).",
+          threads, maxQueue);
+    }
+  }
+
+  @Override
+  public void stop() {
+    ExecutorService current = executor;
+    if (current != null) {
+      executor = null;
+      current.shutdownNow();
+    }
+  }
+
+  boolean isEnabled() {
+    return executor != null;
+  }
+
+  /**
+   * Schedules the evaluation of the owners of a change. A change that is already waiting to be
+   * evaluated is not scheduled twice.
+   */
+  void warm(Project.NameKey project, Change.Id changeId) {
+    ExecutorService current = executor;
+    if (current == null || !queued.add(changeId)) {
+      return;
+    }
+
+    if (queueDepth.incrementAndGet() > maxQueue) {
+      dequeue(changeId);
+      metrics.countWarmupDrops.increment();
+      return;
+    }
+
+    try {
+      current.execute(
+          () -> {
+            dequeue(changeId);
+            evaluate(project, changeId);
+          });
+    } catch (RejectedExecutionException e) {
+      dequeue(changeId);
+      metrics.countWarmupDrops.increment();
+    }
+  }
+
+  /**
+   * Schedules the evaluation of the owners of all the open changes targeting the branch. A branch
+   * whose open changes are already waiting to be listed is not scheduled twice.
+   */
+  void warmOpenChanges(BranchNameKey branch) {
+    ExecutorService current = executor;
+    if (current == null || !queuedBranches.add(branch)) {
+      return;
+    }
+
+    try {
+      current.execute(
+          () -> {
+            // Updates of the branch from now on need a new listing
+            queuedBranches.remove(branch);
+            try {
+              for (ChangeData cd : queryProvider.get().byBranchOpen(branch)) {
+                warm(branch.project(), cd.getId());
+              }
+            } catch (RuntimeException e) {
+              logger.atWarning().withCause(e).log(
+                  "Unable to list the open changes of %s to warm up their owners evaluation.",
+                  branch);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      queuedBranches.remove(branch);
+      metrics.countWarmupDrops.increment();
+    }
+  }
+
+  private void dequeue(Change.Id changeId) {
+    queued.remove(changeId);
+    queueDepth.decrementAndGet();
+  }
+
+  private void evaluate(Project.NameKey project, Change.Id changeId) {
+    try (Timer0.Context ctx = metrics.warmup.start()) {
+      ChangeData cd = changeDataFactory.create(project, changeId);
+      if (cd.change() != null) {
+        ownersSubmitRequirement.evaluate(cd);
+      }
+    } catch (RuntimeException e) {
+      logger.atWarning().withCause(e).log(
+          "Project '%s': unable to warm up the owners evaluation of change #%d.",
+          project, changeId.get());
+    }
+  }
+}
@@ -0,0 +1,91 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.extensions.common.ChangeInfo;
+import com.google.gerrit.extensions.events.CommentAddedListener;
+import com.google.gerrit.extensions.events.GitReferenceUpdatedListener;
+import com.google.gerrit.extensions.events.RevisionCreatedListener;
+import com.google.gerrit.extensions.events.VoteDeletedListener;
+import com.google.gerrit.extensions.registration.DynamicSet;
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Schedules the owners evaluation warm-up of the changes affected by an event: a new patch-set, a
+ * vote being added or removed and an update of the target branch of open changes.
+ */
+@Singleton
+class OwnersCacheWarmupListener
+    implements RevisionCreatedListener,
+        CommentAddedListener,
+        VoteDeletedListener,
+        GitReferenceUpdatedListener {
+  static class Module extends AbstractModule {
+    @Override
+    protected void configure() {
+      install(new OwnersCacheWarmer.Module());
+      DynamicSet.bind(binder(), RevisionCreatedListener.class).to(OwnersCacheWarmupListener.class);
+      DynamicSet.bind(binder(), CommentAddedListener.class).to(OwnersCacheWarmupListener.class);
+      DynamicSet.bind(binder(), VoteDeletedListener.class).to(OwnersCacheWarmupListener.class);
+      DynamicSet.bind(binder(), GitReferenceUpdatedListener.class)
+          .to(OwnersCacheWarmupListener.class);
+    }
+  }
+
+  private final OwnersCacheWarmer warmer;
+
+  @Inject
+  OwnersCacheWarmupListener(OwnersCacheWarmer warmer) {
+    this.warmer = warmer;
+  }
+
+  @Override
+  public void onRevisionCreated(RevisionCreatedListener.Event event) {
+    warm(event.getChange());
+  }
+
+  @Override
+  public void onCommentAdded(CommentAddedListener.Event event) {
+    if (event.getApprovals() != null && !event.getApprovals().isEmpty()) {
+      warm(event.getChange());
+    }
+  }
+
+  @Override
+  public void onVoteDeleted(VoteDeletedListener.Event event) {
+    warm(event.getChange());
+  }
+
+  @Override
+  public void onGitReferenceUpdated(GitReferenceUpdatedListener.Event event) {
+    String refName = event.getRefName();
+    if (event.isDelete() || !refName.startsWith(RefNames.REFS_HEADS)) {
+      return;
+    }
+
+    // A new branch tip can change the OWNERS of all the open changes targeting it
+    warmer.warmOpenChanges(BranchNameKey.create(Project.nameKey(event.getProjectName()), refName));
+  }
+
+  private void warm(ChangeInfo change) {
+    warmer.warm(Project.nameKey(change.project), Change.id(change._number));
+  }
+}
@@ -0,0 +1,128 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.server.project.ProjectState;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+
+/**
+ * Computes a digest of the OWNERS configuration that is consulted when resolving the owners of a
+ * set of paths: the OWNERS blob ids found in every directory, from the root down to each path, on
+ * the target branch and the `refs/meta/config` revisions of the project and of all its parents.
+ */
+public final class OwnersFingerprint {
+  static final String OWNERS = "OWNERS";
+
+  public static String compute(
+      Repository repository, ProjectState projectState, Optional<String> branch, Set<String> paths)
+      throws IOException {
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    putConfigRevisions(hasher, projectState);
+
+    if (branch.isPresent()) {
+      hasher.putString(branch.get(), UTF_8);
+      for (Map.Entry<String, ObjectId> ownersBlob :
+          ownersBlobs(repository, branch.get(), paths).entrySet()) {
+        hasher.putString(ownersBlob.getKey(), UTF_8);
+        hasher.putString(ownersBlob.getValue().name(), UTF_8);
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Computes a digest of the whole OWNERS configuration available to the branch: the tip of the
+   * branch and the `refs/meta/config` revisions of the project and of all its parents. It changes
+   * whenever any OWNERS file that could be consulted for the branch changes.
+   */
+  public static String branchRevision(
+      Repository repository, ProjectState projectState, Optional<String> branch)
+      throws IOException {
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    putConfigRevisions(hasher, projectState);
+
+    if (branch.isPresent()) {
+      hasher.putString(branch.get(), UTF_8);
+      Ref ref = repository.exactRef(RefNames.fullName(branch.get()));
+      hasher.putString(ref == null ? "none" : ref.getObjectId().name(), UTF_8);
+    }
+    return hasher.hash().toString();
+  }
+
+  private static void putConfigRevisions(Hasher hasher, ProjectState projectState) {
+    for (ProjectState state : projectState.tree()) {
+      hasher.putString(state.getName(), UTF_8);
+      hasher.putString(
+          state.getConfig().getRevision().map(ObjectId::name).orElse("none"), UTF_8);
+    }
+  }
+
+  /** Returns the blob ids of the OWNERS files found in the directories leading to the paths. */
+  static Map<String, ObjectId> ownersBlobs(Repository repository, String branch, Set<String> paths)
+      throws IOException {
+    Map<String, ObjectId> blobs = new TreeMap<>();
+    Ref ref = repository.exactRef(RefNames.fullName(branch));
+    if (ref == null) {
+      return blobs;
+    }
+
+    try (RevWalk rw = new RevWalk(repository);
+        TreeWalk tw = new TreeWalk(rw.getObjectReader())) {
+      tw.addTree(rw.parseTree(ref.getObjectId()));
+      tw.setRecursive(true);
+      tw.setFilter(PathFilterGroup.createFromStrings(ownersCandidates(paths)));
+      while (tw.next()) {
+        blobs.put(tw.getPathString(), tw.getObjectId(0));
+      }
+    }
+    return blobs;
+  }
+
+  /** Returns the paths of all OWNERS files that may be consulted for the given paths. */
+  static Set<String> ownersCandidates(Set<String> paths) {
+    Set<String> candidates = new TreeSet<>();
+    candidates.add(OWNERS);
+    for (String path : paths) {
+      int slash = path.lastIndexOf('/');
+      while (slash > 0) {
+        path = path.substring(0, slash);
+        if (!candidates.add(path + "/" + OWNERS)) {
+          // parent directories were already added by a sibling path
+          break;
+        }
+        slash = path.lastIndexOf('/');
+      }
+    }
+    return candidates;
+  }
+
+  private OwnersFingerprint() {}
+}
@@ -30,6 +30,17 @@ class OwnersMetrics {
   final Counter0 countSubmitRuleRuns;
   final Timer0 runSubmitRule;
 
+  final Counter0 countSubmitResultCacheHits;
+  final Counter0 countSubmitResultCacheMisses;
+
+  final Counter0 countWarmupDrops;
+  final Timer0 warmup;
+
+  final Counter0 countCopyConditionTimeouts;
+
+  final Counter0 countPatchSetDeltaCacheHits;
+  final Counter0 countPatchSetDeltaCacheMisses;
+
   @Inject
   OwnersMetrics(MetricMaker metricMaker) {
     this.countConfigLoads =
@@ -47,6 +58,45 @@ class OwnersMetrics {
     this.runSubmitRule =
         createTimer(
             metricMaker, "run_submit_rule_latency", "Latency for running the owners submit rule");
+
+    this.countSubmitResultCacheHits =
+        createCounter(
+            metricMaker,
+            "count_submit_result_cache_hits",
+            "Total number of owners submit rule evaluations served from cache");
+    this.countSubmitResultCacheMisses =
+        createCounter(
+            metricMaker,
+            "count_submit_result_cache_misses",
+            "Total number of owners submit rule evaluations not found in cache");
+
+    this.countWarmupDrops =
+        createCounter(
+            metricMaker,
+            "count_warmup_drops",
+            "Total number of changes not warmed up because the warm-up queue was full");
+    this.warmup =
+        createTimer(
+            metricMaker,
+            "warmup_latency",
+            "Latency for warming up the owners evaluation of a change");
+
+    this.countCopyConditionTimeouts =
+        createCounter(
+            metricMaker,
+            "count_copy_condition_timeouts",
+            "Total number of approvals not copied because the copy condition deadline expired");
+
+    this.countPatchSetDeltaCacheHits =
+        createCounter(
+            metricMaker,
+            "count_patch_set_delta_cache_hits",
+            "Total number of patch-set deltas of the copy condition served from cache");
+    this.countPatchSetDeltaCacheMisses =
+        createCounter(
+            metricMaker,
+            "count_patch_set_delta_cache_misses",
+            "Total number of patch-set deltas of the copy condition not found in cache");
   }
 
   private static Counter0 createCounter(MetricMaker metricMaker, String name, String description) {
@@ -36,11 +36,17 @@ public class OwnersModule extends AbstractModule {
   @Override
   protected void configure() {
     install(PathOwnersEntriesCache.module());
+    install(OwnersSubmitResultCache.module());
+    install(BranchOwnersCache.module());
+    install(AutoApprovalDecisionCache.module());
     DynamicSet.bind(binder(), PredicateProvider.class)
         .to(OwnerPredicateProvider.class)
         .asEagerSingleton();
     install(new OwnersRestApiModule());
     install(new OwnersApprovalHasOperand.OwnerApprovalHasOperandModule());
+    install(new OwnersPendingHasOperand.OwnersPendingHasOperandModule());
+    install(new OwnersApprovalStatusIndexer.Module());
+    install(new OwnersCacheWarmupListener.Module());
     install(new AlreadyApprovedByOperand.Module());
 
     if (pluginSettings.enableSubmitRequirement()) {
@@ -0,0 +1,83 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.extensions.annotations.PluginName;
+import com.google.gerrit.server.project.SubmitRequirementEvaluationException;
+import com.google.gerrit.server.query.change.ChangeData;
+import com.google.gerrit.server.query.change.SubmitRequirementPredicate;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.owners.OwnersApprovalStatusCache.Status;
+import com.googlesource.gerrit.owners.common.InvalidOwnersFileException;
+import java.util.Optional;
+
+/**
+ * A predicate that matches the open changes that are missing at least one owner approval. The
+ * status stored when the change was last indexed is used whenever the change did not move since,
+ * otherwise it falls back to the {@link OwnersSubmitRequirement} evaluation.
+ */
+@Singleton
+class OwnersPendingHasPredicate extends SubmitRequirementPredicate {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private final OwnersSubmitRequirement ownersSubmitRequirement;
+  private final OwnersApprovalStatusCache statusCache;
+  private final EvaluationCost cost = new EvaluationCost(10);
+
+  @Inject
+  OwnersPendingHasPredicate(
+      @PluginName String pluginName,
+      OwnersSubmitRequirement ownersSubmitRequirement,
+      OwnersApprovalStatusCache statusCache) {
+    super("has", OwnersPendingHasOperand.OPERAND + "_" + pluginName);
+    this.ownersSubmitRequirement = ownersSubmitRequirement;
+    this.statusCache = statusCache;
+  }
+
+  @Override
+  public boolean match(ChangeData cd) {
+    Change change = cd.change();
+    if (change.isClosed()) {
+      return false;
+    }
+
+    Optional<Status> status = statusCache.get(change);
+    if (status.isPresent()) {
+      cost.cached();
+      return !status.get().isApproved();
+    }
+
+    try {
+      boolean approved = ownersSubmitRequirement.isApproved(cd);
+      cost.evaluated(ownersSubmitRequirement.getCost());
+      return !approved;
+    } catch (InvalidOwnersFileException e) {
+      logger.atSevere().withCause(e).log("Reading/parsing OWNERS file error.");
+      throw new SubmitRequirementEvaluationException(e.getMessage());
+    }
+  }
+
+  /**
+   * Estimated from the previous matches: cheap while the changes are answered from the status
+   * stored when they were indexed, as expensive as the owners evaluation otherwise.
+   */
+  @Override
+  public int getCost() {
+    return cost.get();
+  }
+}
@@ -17,11 +17,19 @@ package com.googlesource.gerrit.owners;
 
 import com.google.gerrit.extensions.restapi.RestApiModule;
 import com.google.gerrit.server.change.RevisionResource;
+import com.google.gerrit.server.config.ConfigResource;
+import com.google.gerrit.server.project.BranchResource;
 import com.googlesource.gerrit.owners.restapi.GetFilesOwners;
+import com.googlesource.gerrit.owners.restapi.GetFilesOwnersCompact;
+import com.googlesource.gerrit.owners.restapi.GetPathsOwners;
+import com.googlesource.gerrit.owners.restapi.PostFilesOwners;
 
 public class OwnersRestApiModule extends RestApiModule {
   @Override
   protected void configure() {
     get(RevisionResource.REVISION_KIND, "files-owners").to(GetFilesOwners.class);
+    get(RevisionResource.REVISION_KIND, "files-owners-compact").to(GetFilesOwnersCompact.class);
+    get(BranchResource.BRANCH_KIND, "paths-owners").to(GetPathsOwners.class);
+    post(ConfigResource.CONFIG_KIND, "files-owners").to(PostFilesOwners.class);
   }
 }
@@ -16,10 +16,13 @@
 
 package com.googlesource.gerrit.owners;
 
+import com.google.gerrit.entities.Account;
 import com.google.gerrit.entities.Project;
 import com.google.gerrit.metrics.Timer0;
+import com.google.gerrit.server.account.AccountCache;
 import com.google.gerrit.server.git.GitRepositoryManager;
-import com.google.gerrit.server.patch.filediff.FileDiffOutput;
+import com.google.gerrit.server.patch.DiffNotAvailableException;
+import com.google.gerrit.server.patch.DiffOperations;
 import com.google.gerrit.server.project.ProjectState;
 import com.google.gerrit.server.rules.prolog.StoredValue;
 import com.google.gerrit.server.rules.prolog.StoredValues;
@@ -29,9 +32,13 @@ import com.googlesource.gerrit.owners.common.InvalidOwnersFileException;
 import com.googlesource.gerrit.owners.common.PathOwners;
 import com.googlesource.gerrit.owners.common.PathOwnersEntriesCache;
 import com.googlesource.gerrit.owners.common.PluginSettings;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.eclipse.jgit.lib.Repository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,11 +49,16 @@ public class OwnersStoredValues {
 
   public static StoredValue<PathOwners> PATH_OWNERS;
 
+  /** Full names of all the owners of the files of the change, loaded at once. */
+  public static StoredValue<Map<Account.Id, String>> OWNERS_FULL_NAMES;
+
   public static synchronized void initialize(
       Accounts accounts,
       PluginSettings settings,
       PathOwnersEntriesCache cache,
-      OwnersMetrics metrics) {
+      OwnersMetrics metrics,
+      DiffOperations diffOperations,
+      AccountCache accountCache) {
     if (PATH_OWNERS != null) {
       return;
     }
@@ -55,7 +67,6 @@ public class OwnersStoredValues {
         new StoredValue<>() {
           @Override
           protected PathOwners createValue(Prolog engine) {
-            Map<String, FileDiffOutput> patchList = StoredValues.DIFF_LIST.get(engine);
             Repository repository = StoredValues.REPOSITORY.get(engine);
             ProjectState projectState = StoredValues.PROJECT_STATE.get(engine);
             GitRepositoryManager gitRepositoryManager = StoredValues.REPO_MANAGER.get(engine);
@@ -64,13 +75,19 @@ public class OwnersStoredValues {
             try (Timer0.Context ctx = metrics.loadConfig.start()) {
               List<Project.NameKey> parentProjectsNameKeys = PathOwners.getParents(projectState);
               String branch = StoredValues.getChange(engine).getDest().branch();
+              Set<String> modifiedPaths =
+                  ModifiedPaths.againstParent(
+                      diffOperations,
+                      repository,
+                      projectState.getNameKey(),
+                      StoredValues.getPatchSet(engine).commitId());
               return new PathOwners(
                   accounts,
                   gitRepositoryManager,
                   repository,
                   parentProjectsNameKeys,
                   settings.isBranchDisabled(branch) ? Optional.empty() : Optional.of(branch),
-                  patchList,
+                  modifiedPaths,
                   settings.expandGroups(),
                   projectState.getName(),
                   cache,
@@ -79,9 +96,35 @@ public class OwnersStoredValues {
               // re-throw exception as it is already logged but more importantly it is nicely
               // handled by the prolog rules evaluator and results in prolog rule error
               throw new IllegalStateException(e);
+            } catch (IOException | DiffNotAvailableException e) {
+              throw new IllegalStateException(
+                  String.format(
+                      "Unable to list the files modified by change %s",
+                      StoredValues.getChange(engine).getId()),
+                  e);
             }
           }
         };
+    OWNERS_FULL_NAMES =
+        new StoredValue<>() {
+          @Override
+          protected Map<Account.Id, String> createValue(Prolog engine) {
+            return loadFullNames(accountCache, PATH_OWNERS.get(engine).getFileOwners());
+          }
+        };
+  }
+
+  /** Loads the full names of all the owners of the files at once. */
+  static Map<Account.Id, String> loadFullNames(
+      AccountCache accountCache, Map<String, Set<Account.Id>> fileOwners) {
+    Set<Account.Id> accountIds = new HashSet<>();
+    fileOwners.values().forEach(accountIds::addAll);
+
+    Map<Account.Id, String> fullNames = new HashMap<>();
+    accountCache
+        .get(accountIds)
+        .forEach((accountId, as) -> fullNames.put(accountId, as.account().fullName()));
+    return fullNames;
   }
 
   private OwnersStoredValues() {}
@@ -15,18 +15,22 @@
 package com.googlesource.gerrit.owners;
 
 import static com.google.gerrit.server.project.ProjectCache.illegalState;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.toSet;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Streams;
 import com.google.common.flogger.FluentLogger;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.gerrit.entities.Account;
 import com.google.gerrit.entities.Change;
 import com.google.gerrit.entities.LabelFunction;
 import com.google.gerrit.entities.LabelType;
 import com.google.gerrit.entities.LabelTypes;
 import com.google.gerrit.entities.LegacySubmitRequirement;
+import com.google.gerrit.entities.PatchSet;
 import com.google.gerrit.entities.PatchSetApproval;
 import com.google.gerrit.entities.Project;
 import com.google.gerrit.entities.SubmitRecord;
@@ -37,8 +41,6 @@ import com.google.gerrit.server.git.GitRepositoryManager;
 import com.google.gerrit.server.notedb.ChangeNotes;
 import com.google.gerrit.server.patch.DiffNotAvailableException;
 import com.google.gerrit.server.patch.DiffOperations;
-import com.google.gerrit.server.patch.DiffOptions;
-import com.google.gerrit.server.patch.filediff.FileDiffOutput;
 import com.google.gerrit.server.project.ProjectCache;
 import com.google.gerrit.server.project.ProjectState;
 import com.google.gerrit.server.query.change.ChangeData;
@@ -46,20 +48,20 @@ import com.google.gerrit.server.rules.SubmitRule;
 import com.google.inject.AbstractModule;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import com.googlesource.gerrit.owners.common.Accounts;
+import com.googlesource.gerrit.owners.OwnersSubmitResultCache.Result;
 import com.googlesource.gerrit.owners.common.InvalidOwnersFileException;
 import com.googlesource.gerrit.owners.common.LabelDefinition;
-import com.googlesource.gerrit.owners.common.PathOwners;
-import com.googlesource.gerrit.owners.common.PathOwnersEntriesCache;
 import com.googlesource.gerrit.owners.common.PluginSettings;
 import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
-import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
 
 @Singleton
@@ -80,30 +82,31 @@ public class OwnersSubmitRequirement implements SubmitRule {
   private final OwnersMetrics metrics;
   private final PluginSettings pluginSettings;
   private final ProjectCache projectCache;
-  private final Accounts accounts;
   private final GitRepositoryManager repoManager;
   private final DiffOperations diffOperations;
   private final ApprovalsUtil approvalsUtil;
-  private final PathOwnersEntriesCache cache;
+  private final BranchOwnersCache branchOwnersCache;
+  private final OwnersSubmitResultCache resultCache;
+  private final EvaluationCost cost = new EvaluationCost(10);
 
   @Inject
   OwnersSubmitRequirement(
       OwnersMetrics metrics,
       PluginSettings pluginSettings,
       ProjectCache projectCache,
-      Accounts accounts,
       GitRepositoryManager repoManager,
       DiffOperations diffOperations,
       ApprovalsUtil approvalsUtil,
-      PathOwnersEntriesCache cache) {
+      BranchOwnersCache branchOwnersCache,
+      OwnersSubmitResultCache resultCache) {
     this.metrics = metrics;
     this.pluginSettings = pluginSettings;
     this.projectCache = projectCache;
-    this.accounts = accounts;
     this.repoManager = repoManager;
     this.diffOperations = diffOperations;
     this.approvalsUtil = approvalsUtil;
-    this.cache = cache;
+    this.branchOwnersCache = branchOwnersCache;
+    this.resultCache = resultCache;
   }
 
   @Override
@@ -122,10 +125,8 @@ public class OwnersSubmitRequirement implements SubmitRule {
 
     metrics.countSubmitRuleRuns.increment();
     try (Timer0.Context ctx = metrics.runSubmitRule.start()) {
-      ProjectState projectState = getProjectState(project);
-      PathOwners pathOwners = getPathOwners(cd, projectState);
-      Map<String, Set<Account.Id>> fileOwners = pathOwners.getFileOwners();
-      if (fileOwners.isEmpty()) {
+      Result result = getResult(cd, Mode.ALL_MISSING_APPROVALS);
+      if (!result.isApplicable()) {
         logger.atFinest().log(
             "Project '%s': change #%d has no OWNERS submit requirements defined. "
                 + "Skipping submit requirements.",
@@ -133,59 +134,96 @@ public class OwnersSubmitRequirement implements SubmitRule {
         return Optional.empty();
       }
 
-      ChangeNotes notes = cd.notes();
-      requireNonNull(notes, "notes");
-      LabelTypes labelTypes = projectState.getLabelTypes(notes);
-      LabelDefinition label = resolveLabel(labelTypes, pathOwners.getLabel());
-      Optional<LabelAndScore> ownersLabel = ownersLabel(labelTypes, label, project);
-
-      Map<Account.Id, List<PatchSetApproval>> approvalsByAccount =
-          Streams.stream(approvalsUtil.byPatchSet(notes, cd.currentPatchSet().id()))
-              .collect(Collectors.groupingBy(PatchSetApproval::accountId));
-
-      Account.Id uploader = notes.getCurrentPatchSet().uploader();
-
-      Set<String> missingApprovals =
-          fileOwners.entrySet().stream()
-              .filter(
-                  requiredApproval ->
-                      ownersLabel
-                          .map(
-                              ol ->
-                                  isApprovalMissing(
-                                      requiredApproval, uploader, approvalsByAccount, ol))
-                          .orElse(true))
-              .map(Map.Entry::getKey)
-              .collect(toSet());
-
       return Optional.of(
-          missingApprovals.isEmpty()
+          result.status() == SubmitRecord.Status.OK
               ? ok()
               : notReady(
-                  label.getName(),
+                  result.ownersLabel(),
                   String.format(
                       "Missing approvals for path(s): [%s]",
-                      Joiner.on(", ").join(missingApprovals))));
+                      Joiner.on(", ").join(result.missingApprovals()))));
     } catch (InvalidOwnersFileException e) {
       logger.atSevere().withCause(e).log("Reading/parsing OWNERS file error.");
       return Optional.of(ruleError(e.getMessage()));
     } catch (IOException e) {
-      String msg =
-          String.format(
-              "Project '%s': repository cannot be opened to evaluate OWNERS submit requirements.",
-              project);
-      logger.atSevere().withCause(e).log("%s", msg);
-      throw new IllegalStateException(msg, e);
+      throw repositoryNotAvailable(project, e);
+    } catch (DiffNotAvailableException e) {
+      throw diffNotAvailable(project, changeId, e);
+    }
+  }
+
+  /**
+   * Checks whether the change has all the necessary owner approvals. Contrary to {@link
+   * #evaluate(ChangeData)} the evaluation stops at the first path that lacks an owner approval and
+   * no {@link SubmitRecord} is built.
+   *
+   * @param cd change to check
+   * @return {@code true} when the change is closed, has no OWNERS defined or is approved by owners
+   * @throws InvalidOwnersFileException when an OWNERS file cannot be parsed
+   */
+  boolean isApproved(ChangeData cd) throws InvalidOwnersFileException {
+    requireNonNull(cd, "changeData");
+    if (cd.change().isClosed()) {
+      return true;
+    }
+
+    metrics.countSubmitRuleRuns.increment();
+    try (Timer0.Context ctx = metrics.runSubmitRule.start()) {
+      Result result = getResult(cd, Mode.FIRST_MISSING_APPROVAL);
+      return !result.isApplicable() || result.status() == SubmitRecord.Status.OK;
+    } catch (IOException e) {
+      throw repositoryNotAvailable(cd.project(), e);
     } catch (DiffNotAvailableException e) {
-      String msg =
-          String.format(
-              "Project '%s' change #%d: unable to get diff to evaluate OWNERS submit requirements.",
-              project, changeId);
-      logger.atSevere().withCause(e).log("%s", msg);
-      throw new IllegalStateException(msg, e);
+      throw diffNotAvailable(cd.project(), cd.getId().get(), e);
     }
   }
 
+  /**
+   * Returns the paths of the change that are still missing an owner approval.
+   *
+   * @param cd change to check
+   * @return paths missing an owner approval, empty when the change has no OWNERS defined or is
+   *     approved by owners
+   * @throws InvalidOwnersFileException when an OWNERS file cannot be parsed
+   */
+  ImmutableSet<String> pendingPaths(ChangeData cd) throws InvalidOwnersFileException {
+    requireNonNull(cd, "changeData");
+
+    metrics.countSubmitRuleRuns.increment();
+    try (Timer0.Context ctx = metrics.runSubmitRule.start()) {
+      return getResult(cd, Mode.ALL_MISSING_APPROVALS).missingApprovals();
+    } catch (IOException e) {
+      throw repositoryNotAvailable(cd.project(), e);
+    } catch (DiffNotAvailableException e) {
+      throw diffNotAvailable(cd.project(), cd.getId().get(), e);
+    }
+  }
+
+  /** Returns the estimated cost of checking whether a change has all its owner approvals. */
+  int getCost() {
+    return cost.get();
+  }
+
+  private static IllegalStateException repositoryNotAvailable(
+      Project.NameKey project, IOException e) {
+    String msg =
+        String.format(
+            "Project '%s': repository cannot be opened to evaluate OWNERS submit requirements.",
+            project);
+    logger.atSevere().withCause(e).log("%s", msg);
+    return new IllegalStateException(msg, e);
+  }
+
+  private static IllegalStateException diffNotAvailable(
+      Project.NameKey project, int changeId, DiffNotAvailableException e) {
+    String msg =
+        String.format(
+            "Project '%s' change #%d: unable to get diff to evaluate OWNERS submit requirements.",
+            project, changeId);
+    logger.atSevere().withCause(e).log("%s", msg);
+    return new IllegalStateException(msg, e);
+  }
+
   private ProjectState getProjectState(Project.NameKey project) {
     ProjectState projectState = projectCache.get(project).orElseThrow(illegalState(project));
     if (projectState.hasPrologRules()) {
@@ -197,31 +235,127 @@ public class OwnersSubmitRequirement implements SubmitRule {
     return projectState;
   }
 
-  private PathOwners getPathOwners(ChangeData cd, ProjectState projectState)
+  private Result getResult(ChangeData cd, Mode mode)
       throws IOException, DiffNotAvailableException, InvalidOwnersFileException {
-    metrics.countConfigLoads.increment();
-    try (Timer0.Context ctx = metrics.loadConfig.start()) {
-      String branch = cd.change().getDest().branch();
-
-      List<Project.NameKey> parents = PathOwners.getParents(projectState);
-      Project.NameKey nameKey = projectState.getNameKey();
-      try (Repository repo = repoManager.openRepository(nameKey)) {
-        PathOwners pathOwners =
-            new PathOwners(
-                accounts,
-                repoManager,
-                repo,
-                parents,
-                pluginSettings.isBranchDisabled(branch) ? Optional.empty() : Optional.of(branch),
-                getDiff(nameKey, cd.currentPatchSet().commitId()),
-                pluginSettings.expandGroups(),
-                nameKey.get(),
-                cache,
-                pluginSettings.globalLabel());
-
-        return pathOwners;
+    Project.NameKey project = cd.project();
+    ProjectState projectState = getProjectState(project);
+    ChangeNotes notes = cd.notes();
+    requireNonNull(notes, "notes");
+    PatchSet currentPatchSet = cd.currentPatchSet();
+
+    Map<Account.Id, List<PatchSetApproval>> approvalsByAccount =
+        Streams.stream(approvalsUtil.byPatchSet(notes, currentPatchSet.id()))
+            .collect(Collectors.groupingBy(PatchSetApproval::accountId));
+
+    String branch = cd.change().getDest().branch();
+    Optional<String> ownersBranch =
+        pluginSettings.isBranchDisabled(branch) ? Optional.empty() : Optional.of(branch);
+    try (Repository repo = repoManager.openRepository(project)) {
+      Set<String> modifiedPaths =
+          ModifiedPaths.againstParent(diffOperations, repo, project, currentPatchSet.commitId());
+      OwnersSubmitResultCache.Key key =
+          new OwnersSubmitResultCache.Key(
+              project,
+              cd.getId(),
+              currentPatchSet.commitId(),
+              approvalsDigest(approvalsByAccount),
+              OwnersFingerprint.compute(repo, projectState, ownersBranch, modifiedPaths));
+      Optional<Result> cached = resultCache.get(key);
+      if (cached.isPresent()) {
+        cost.cached();
+        return cached.get();
+      }
+
+      Result result =
+          computeResult(
+              project,
+              notes,
+              projectState,
+              approvalsByAccount,
+              branchOwnersCache.resolve(repo, projectState, ownersBranch, modifiedPaths),
+              mode);
+      if (result.isApplicable()) {
+        cost.computed(modifiedPaths.size());
+      } else {
+        cost.noOwners();
+      }
+      // When stopping at the first missing approval the set of missing approvals is partial
+      if (mode == Mode.ALL_MISSING_APPROVALS || result.status() != SubmitRecord.Status.NOT_READY) {
+        resultCache.put(key, result);
+      }
+      return result;
+    }
+  }
+
+  private Result computeResult(
+      Project.NameKey project,
+      ChangeNotes notes,
+      ProjectState projectState,
+      Map<Account.Id, List<PatchSetApproval>> approvalsByAccount,
+      ResolvedOwnership ownership,
+      Mode mode) {
+    Map<String, Set<Account.Id>> fileOwners = ownership.getFileOwners();
+    if (fileOwners.isEmpty()) {
+      return Result.NOT_APPLICABLE;
+    }
+
+    LabelTypes labelTypes = projectState.getLabelTypes(notes);
+    LabelDefinition label = resolveLabel(labelTypes, ownership.getLabel());
+    Optional<LabelAndScore> ownersLabel = ownersLabel(labelTypes, label, project);
+
+    Account.Id uploader = notes.getCurrentPatchSet().uploader();
+    Optional<OwnersApprovals> ownersApprovals =
+        ownersLabel.map(ol -> OwnersApprovals.create(approvalsByAccount, uploader, ol));
+
+    if (mode == Mode.FIRST_MISSING_APPROVAL) {
+      Map<Set<Account.Id>, Boolean> missingByOwnerSet = new HashMap<>();
+      for (Map.Entry<String, Set<Account.Id>> fileOwner : fileOwners.entrySet()) {
+        boolean isApprovalMissing =
+            missingByOwnerSet.computeIfAbsent(
+                fileOwner.getValue(),
+                owners -> ownersApprovals.map(a -> a.isApprovalMissing(owners)).orElse(true));
+        if (isApprovalMissing) {
+          return new Result(
+              SubmitRecord.Status.NOT_READY, label.getName(), ImmutableSet.of(fileOwner.getKey()));
+        }
       }
+      return new Result(SubmitRecord.Status.OK, label.getName(), ImmutableSet.of());
     }
+
+    Set<String> missingApprovals = new HashSet<>();
+    for (Map.Entry<Set<Account.Id>, List<String>> ownerSet :
+        OwnerSets.groupByOwners(fileOwners).entrySet()) {
+      if (ownersApprovals
+          .map(approvals -> approvals.isApprovalMissing(ownerSet.getKey()))
+          .orElse(true)) {
+        missingApprovals.addAll(ownerSet.getValue());
+      }
+    }
+
+    return new Result(
+        missingApprovals.isEmpty() ? SubmitRecord.Status.OK : SubmitRecord.Status.NOT_READY,
+        label.getName(),
+        ImmutableSet.copyOf(missingApprovals));
+  }
+
+  /**
+   * Digest of the approvals that the owners evaluation depends upon, that is, the account, label
+   * and value of each vote.
+   */
+  static String approvalsDigest(Map<Account.Id, List<PatchSetApproval>> approvalsByAccount) {
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    approvalsByAccount.values().stream()
+        .flatMap(List::stream)
+        .sorted(
+            Comparator.comparing((PatchSetApproval a) -> a.accountId().get())
+                .thenComparing(a -> a.labelId().get()))
+        .forEach(
+            a ->
+                hasher
+                    .putInt(a.accountId().get())
+                    .putString(a.labelId().get(), UTF_8)
+                    .putShort(a.value()));
+    return hasher.hash().toString();
   }
 
   /**
@@ -320,6 +454,13 @@ public class OwnersSubmitRequirement implements SubmitRule {
             });
   }
 
+  private enum Mode {
+    /** Evaluates all paths and collects all the ones missing an owner approval. */
+    ALL_MISSING_APPROVALS,
+    /** Stops at the first path missing an owner approval. */
+    FIRST_MISSING_APPROVAL
+  }
+
   static class LabelAndScore {
     private final LabelType labelType;
     private final Optional<Short> score;
@@ -338,21 +479,6 @@ public class OwnersSubmitRequirement implements SubmitRule {
     }
   }
 
-  private Map<String, FileDiffOutput> getDiff(Project.NameKey project, ObjectId revision)
-      throws DiffNotAvailableException {
-    requireNonNull(project, "project");
-    requireNonNull(revision, "revision");
-
-    // Use parentNum=0 to do the comparison against the default base.
-    // For non-merge commits the default base is the only parent (aka parent 1, initial commits
-    // are not supported).
-    // For merge commits the default base is the auto-merge commit which should be used as base IOW
-    // only the changes from it should be reviewed as changes against the parent 1 were already
-    // reviewed
-    return diffOperations.listModifiedFilesAgainstParent(
-        project, revision, 0, DiffOptions.DEFAULTS);
-  }
-
   private static SubmitRecord notReady(String ownersLabel, String missingApprovals) {
     SubmitRecord submitRecord = new SubmitRecord();
     submitRecord.status = SubmitRecord.Status.NOT_READY;
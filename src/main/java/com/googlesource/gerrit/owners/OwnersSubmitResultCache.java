@@ -0,0 +1,91 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import com.google.common.cache.Cache;
+import com.google.common.collect.ImmutableSet;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.SubmitRecord;
+import com.google.gerrit.server.cache.CacheModule;
+import com.google.inject.Inject;
+import com.google.inject.Module;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.util.Optional;
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Cache of the owners submit requirement outcome for a change. The key captures everything the
+ * outcome depends upon (patch-set, approvals and OWNERS configuration) therefore entries never need
+ * to be explicitly invalidated.
+ */
+@Singleton
+class OwnersSubmitResultCache {
+  static final String CACHE_NAME = "owners_submit_results";
+
+  static Module module() {
+    return new CacheModule() {
+      @Override
+      protected void configure() {
+        cache(CACHE_NAME, Key.class, Result.class);
+        bind(OwnersSubmitResultCache.class);
+      }
+    };
+  }
+
+  record Key(
+      Project.NameKey project,
+      Change.Id changeId,
+      ObjectId revision,
+      String approvalsDigest,
+      String ownersDigest) {}
+
+  /**
+   * Outcome of the owners evaluation. A {@code null} status means that no OWNERS apply to the
+   * change and the submit requirement is skipped.
+   */
+  record Result(
+      SubmitRecord.Status status, String ownersLabel, ImmutableSet<String> missingApprovals) {
+    static final Result NOT_APPLICABLE = new Result(null, null, ImmutableSet.of());
+
+    boolean isApplicable() {
+      return status != null;
+    }
+  }
+
+  private final Cache<Key, Result> cache;
+  private final OwnersMetrics metrics;
+
+  @Inject
+  OwnersSubmitResultCache(@Named(CACHE_NAME) Cache<Key, Result> cache, OwnersMetrics metrics) {
+    this.cache = cache;
+    this.metrics = metrics;
+  }
+
+  Optional<Result> get(Key key) {
+    Result result = cache.getIfPresent(key);
+    if (result == null) {
+      metrics.countSubmitResultCacheMisses.increment();
+      return Optional.empty();
+    }
+    metrics.countSubmitResultCacheHits.increment();
+    return Optional.of(result);
+  }
+
+  void put(Key key, Result result) {
+    cache.put(key, result);
+  }
+}
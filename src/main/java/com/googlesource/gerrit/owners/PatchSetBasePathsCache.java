@@ -0,0 +1,66 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import com.google.common.cache.Cache;
+import com.google.common.collect.ImmutableSet;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.server.cache.CacheModule;
+import com.google.inject.Inject;
+import com.google.inject.Module;
+import com.google.inject.Singleton;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Named;
+import java.util.Optional;
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Paths modified by a patch-set against its parent, used by the {@code already-approved-by_owners}
+ * copy condition to tell whether an approver owned anything in the change. Computing them may
+ * require creating the auto-merge of the patch-set, therefore they are computed once per patch-set
+ * and shared by all the approvers and all the following uploads. The key only contains immutable
+ * commits therefore entries never need to be explicitly invalidated.
+ */
+@Singleton
+class PatchSetBasePathsCache {
+  static final String CACHE_NAME = "owners_patch_set_base_paths";
+
+  static Module module() {
+    return new CacheModule() {
+      @Override
+      protected void configure() {
+        cache(CACHE_NAME, Key.class, new TypeLiteral<ImmutableSet<String>>() {});
+        bind(PatchSetBasePathsCache.class);
+      }
+    };
+  }
+
+  record Key(Project.NameKey project, ObjectId commit, int parentNum) {}
+
+  private final Cache<Key, ImmutableSet<String>> cache;
+
+  @Inject
+  PatchSetBasePathsCache(@Named(CACHE_NAME) Cache<Key, ImmutableSet<String>> cache) {
+    this.cache = cache;
+  }
+
+  Optional<ImmutableSet<String>> get(Key key) {
+    return Optional.ofNullable(cache.getIfPresent(key));
+  }
+
+  void put(Key key, ImmutableSet<String> paths) {
+    cache.put(key, paths);
+  }
+}
@@ -0,0 +1,102 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import com.google.common.cache.Cache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.gerrit.entities.PatchSet;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.server.cache.CacheModule;
+import com.google.gerrit.server.patch.filediff.FileDiffOutput;
+import com.google.inject.Inject;
+import com.google.inject.Module;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Files modified between two patch-sets of a change, together with their ownership. When a new
+ * patch-set is uploaded the {@code already-approved-by_owners} copy condition is evaluated once per
+ * approval of the previous patch-set, all of them against the same pair of patch-sets: the delta is
+ * computed by the first approval and shared with the others.
+ *
+ * <p>The ownership is resolved from the branch at the time of the upload, therefore entries expire
+ * shortly after being written rather than following the branch. Entries only live for the duration
+ * of an upload, hence they are bounded by their number, whatever the number of files of the delta.
+ */
+@Singleton
+class PatchSetDeltaCache {
+  static final String CACHE_NAME = "owners_patch_set_deltas";
+  static final Duration EXPIRE_AFTER_WRITE = Duration.ofMinutes(1);
+
+  static Module module() {
+    return new CacheModule() {
+      @Override
+      protected void configure() {
+        cache(CACHE_NAME, Key.class, Delta.class).expireAfterWrite(EXPIRE_AFTER_WRITE);
+        bind(PatchSetDeltaCache.class);
+      }
+    };
+  }
+
+  record Key(
+      Project.NameKey project,
+      String branch,
+      PatchSet.Id sourcePatchSet,
+      PatchSet.Id targetPatchSet) {}
+
+  /**
+   * What the copy condition needs to know about a modified file, rather than its whole diff.
+   *
+   * @param oldPath path of the file in the source patch-set, empty when added
+   * @param newPath path of the file in the target patch-set, empty when deleted
+   * @param allEditsDueToRebase whether all the edits of the file come from a rebase
+   */
+  record FileDelta(
+      Optional<String> oldPath, Optional<String> newPath, boolean allEditsDueToRebase) {
+    static FileDelta of(FileDiffOutput diff) {
+      return new FileDelta(diff.oldPath(), diff.newPath(), diff.allEditsDueToRebase());
+    }
+  }
+
+  /**
+   * Delta between two patch-sets.
+   *
+   * @param files modified files, the commit message excluded
+   * @param touchedPaths old and new paths of the modified files
+   * @param owners ownership of the touched paths
+   */
+  record Delta(
+      ImmutableList<FileDelta> files,
+      ImmutableSet<String> touchedPaths,
+      ResolvedOwnership owners) {}
+
+  private final Cache<Key, Delta> cache;
+
+  @Inject
+  PatchSetDeltaCache(@Named(CACHE_NAME) Cache<Key, Delta> cache) {
+    this.cache = cache;
+  }
+
+  Optional<Delta> get(Key key) {
+    return Optional.ofNullable(cache.getIfPresent(key));
+  }
+
+  void put(Key key, Delta delta) {
+    cache.put(key, delta);
+  }
+}
@@ -0,0 +1,112 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.gerrit.entities.Account;
+import com.googlesource.gerrit.owners.common.LabelDefinition;
+import com.googlesource.gerrit.owners.common.PathOwners;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Ownership of a set of paths, as resolved by {@link PathOwners}, but assembled from the per-path
+ * ownership shared by all the changes of a branch.
+ */
+public final class ResolvedOwnership {
+  private final Set<String> paths;
+  private final Map<String, Set<Account.Id>> fileOwners;
+  private final Map<String, Set<String>> fileGroupOwners;
+  private final Set<String> fileOwnersAllowedAutoApproval;
+  private final Optional<LabelDefinition> label;
+  private final Supplier<Map<Account.Id, Set<String>>> pathsByOwner =
+      Suppliers.memoize(this::indexPathsByOwner);
+
+  ResolvedOwnership(
+      Set<String> paths,
+      Map<String, Set<Account.Id>> fileOwners,
+      Map<String, Set<String>> fileGroupOwners,
+      Set<String> fileOwnersAllowedAutoApproval,
+      Optional<LabelDefinition> label) {
+    this.paths = Collections.unmodifiableSet(paths);
+    this.fileOwners = fileOwners;
+    this.fileGroupOwners = fileGroupOwners;
+    this.fileOwnersAllowedAutoApproval = fileOwnersAllowedAutoApproval;
+    this.label = label;
+  }
+
+  /** Returns the paths whose ownership was resolved, owned or not. */
+  public Set<String> getPaths() {
+    return paths;
+  }
+
+  /** Returns true when the ownership of all the paths was resolved. */
+  public boolean covers(Set<String> otherPaths) {
+    return paths.containsAll(otherPaths);
+  }
+
+  /** Returns the paths, among the given ones, that the account owns. */
+  public Set<String> filterFilesOwnedBy(Account.Id owner, Set<String> otherPaths) {
+    return getPathsOwnedBy(owner).stream().filter(otherPaths::contains).collect(Collectors.toSet());
+  }
+
+  /** Returns true when the account owns at least one of the given paths. */
+  public boolean isAnyFileOwnedBy(Account.Id owner, Set<String> otherPaths) {
+    return getPathsOwnedBy(owner).stream().anyMatch(otherPaths::contains);
+  }
+
+  /**
+   * Returns the resolved paths owned by the account. The owned paths of every account are indexed
+   * the first time any of them is requested, so that each lookup only costs as much as the paths
+   * of the account rather than all the resolved paths.
+   */
+  public Set<String> getPathsOwnedBy(Account.Id owner) {
+    return pathsByOwner.get().getOrDefault(owner, Set.of());
+  }
+
+  private Map<Account.Id, Set<String>> indexPathsByOwner() {
+    Map<Account.Id, Set<String>> index = new HashMap<>();
+    fileOwners.forEach(
+        (path, owners) ->
+            owners.forEach(owner -> index.computeIfAbsent(owner, o -> new HashSet<>()).add(path)));
+    return index;
+  }
+
+  /** Returns the owners of each owned path. Paths without owners are not included. */
+  public Map<String, Set<Account.Id>> getFileOwners() {
+    return fileOwners;
+  }
+
+  /** Returns the owners of each owned path, as they are written in the OWNERS files. */
+  public Map<String, Set<String>> getFileGroupOwners() {
+    return fileGroupOwners;
+  }
+
+  /** Returns the paths whose owners may approve their own changes. */
+  public Set<String> getFileOwnersAllowedAutoApproval() {
+    return fileOwnersAllowedAutoApproval;
+  }
+
+  /** Returns the label that owners need to vote on, when configured in the OWNERS files. */
+  public Optional<LabelDefinition> getLabel() {
+    return label;
+  }
+}
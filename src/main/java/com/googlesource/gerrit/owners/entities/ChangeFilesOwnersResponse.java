@@ -0,0 +1,29 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners.entities;
+
+/* Files to Owners response of one of the changes of a batch request, or the reason it failed */
+public record ChangeFilesOwnersResponse(
+    String change, String revision, FilesOwnersResponse owners, String error) {
+
+  public static ChangeFilesOwnersResponse success(
+      String change, String revision, FilesOwnersResponse owners) {
+    return new ChangeFilesOwnersResponse(change, revision, owners, null);
+  }
+
+  public static ChangeFilesOwnersResponse failure(String change, String revision, String error) {
+    return new ChangeFilesOwnersResponse(change, revision, null, error);
+  }
+}
@@ -0,0 +1,64 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners.entities;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Files to Owners response API representation where each distinct set of owners is listed once in
+ * ownerSets and every file refers to its owners by their index in it
+ */
+public record CompactFilesOwnersResponse(
+    Map<Integer, Map<String, Integer>> ownersLabels,
+    List<Set<GroupOwner>> ownerSets,
+    Map<String, Integer> files,
+    Map<String, Integer> filesApproved,
+    Map<String, Integer> filesAutoApproved,
+    Boolean moreFiles) {
+
+  public static CompactFilesOwnersResponse of(FilesOwnersResponse response) {
+    List<Set<GroupOwner>> ownerSets = new ArrayList<>();
+    Map<Set<GroupOwner>, Integer> ownerSetIndexes = new HashMap<>();
+    return new CompactFilesOwnersResponse(
+        response.ownersLabels(),
+        ownerSets,
+        indexOwners(response.files(), ownerSets, ownerSetIndexes),
+        indexOwners(response.filesApproved(), ownerSets, ownerSetIndexes),
+        indexOwners(response.filesAutoApproved(), ownerSets, ownerSetIndexes),
+        response.moreFiles());
+  }
+
+  private static Map<String, Integer> indexOwners(
+      Map<String, Set<GroupOwner>> files,
+      List<Set<GroupOwner>> ownerSets,
+      Map<Set<GroupOwner>, Integer> ownerSetIndexes) {
+    Map<String, Integer> fileIndexes = new HashMap<>();
+    files.forEach(
+        (file, owners) ->
+            fileIndexes.put(
+                file,
+                ownerSetIndexes.computeIfAbsent(
+                    owners,
+                    newOwners -> {
+                      ownerSets.add(newOwners);
+                      return ownerSets.size() - 1;
+                    })));
+    return fileIndexes;
+  }
+}
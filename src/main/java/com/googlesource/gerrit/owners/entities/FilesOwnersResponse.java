@@ -23,4 +23,14 @@ public record FilesOwnersResponse(
     Map<Integer, Map<String, Integer>> ownersLabels,
     Map<String, Set<GroupOwner>> files,
     Map<String, Set<GroupOwner>> filesApproved,
-    Map<String, Set<GroupOwner>> filesAutoApproved) {}
+    Map<String, Set<GroupOwner>> filesAutoApproved,
+    Boolean moreFiles) {
+
+  public FilesOwnersResponse(
+      Map<Integer, Map<String, Integer>> ownersLabels,
+      Map<String, Set<GroupOwner>> files,
+      Map<String, Set<GroupOwner>> filesApproved,
+      Map<String, Set<GroupOwner>> filesAutoApproved) {
+    this(ownersLabels, files, filesApproved, filesAutoApproved, null);
+  }
+}
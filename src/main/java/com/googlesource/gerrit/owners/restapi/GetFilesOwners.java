@@ -15,49 +15,57 @@
 
 package com.googlesource.gerrit.owners.restapi;
 
+import static com.google.gerrit.server.project.ProjectCache.illegalState;
 import static com.googlesource.gerrit.owners.AutoOwnersApprovalFunctions.allowsAutoApprovalOnPatch;
 import static com.googlesource.gerrit.owners.AutoOwnersApprovalFunctions.modifiedFilesBetweenPatchSets;
 import static com.googlesource.gerrit.owners.AutoOwnersApprovalFunctions.touchedPaths;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.flogger.FluentLogger;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.gerrit.entities.Account;
 import com.google.gerrit.entities.Change;
 import com.google.gerrit.entities.LabelId;
+import com.google.gerrit.entities.LabelTypes;
 import com.google.gerrit.entities.PatchSet;
 import com.google.gerrit.entities.PatchSetApproval;
 import com.google.gerrit.entities.Project;
-import com.google.gerrit.extensions.api.GerritApi;
-import com.google.gerrit.extensions.client.ListChangesOption;
-import com.google.gerrit.extensions.common.ChangeInfo;
+import com.google.gerrit.exceptions.StorageException;
 import com.google.gerrit.extensions.restapi.AuthException;
 import com.google.gerrit.extensions.restapi.BadRequestException;
+import com.google.gerrit.extensions.restapi.CacheControl;
+import com.google.gerrit.extensions.restapi.ETagView;
 import com.google.gerrit.extensions.restapi.ResourceConflictException;
 import com.google.gerrit.extensions.restapi.ResourceNotFoundException;
 import com.google.gerrit.extensions.restapi.Response;
-import com.google.gerrit.extensions.restapi.RestApiException;
-import com.google.gerrit.extensions.restapi.RestReadView;
 import com.google.gerrit.server.account.AccountCache;
 import com.google.gerrit.server.change.RevisionResource;
 import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.notedb.ReviewerStateInternal;
 import com.google.gerrit.server.patch.DiffNotAvailableException;
 import com.google.gerrit.server.patch.DiffOperations;
 import com.google.gerrit.server.project.ProjectCache;
+import com.google.gerrit.server.project.ProjectState;
 import com.google.gerrit.server.query.change.ChangeData;
 import com.google.inject.Inject;
-import com.google.inject.Singleton;
-import com.googlesource.gerrit.owners.common.Accounts;
+import com.googlesource.gerrit.owners.AutoApprovalDecisionCache;
+import com.googlesource.gerrit.owners.BranchOwnersCache;
+import com.googlesource.gerrit.owners.OwnerSets;
+import com.googlesource.gerrit.owners.OwnersFingerprint;
+import com.googlesource.gerrit.owners.ResolvedOwnership;
 import com.googlesource.gerrit.owners.common.InvalidOwnersFileException;
-import com.googlesource.gerrit.owners.common.PathOwners;
-import com.googlesource.gerrit.owners.common.PathOwnersEntriesCache;
 import com.googlesource.gerrit.owners.common.PluginSettings;
 import com.googlesource.gerrit.owners.entities.FilesOwnersResponse;
 import com.googlesource.gerrit.owners.entities.GroupOwner;
 import com.googlesource.gerrit.owners.entities.Owner;
 import java.io.IOException;
-import java.util.Collections;
-import java.util.EnumSet;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -65,70 +73,167 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.eclipse.jgit.lib.Repository;
+import org.kohsuke.args4j.Option;
 
-@Singleton
-public class GetFilesOwners implements RestReadView<RevisionResource> {
-  private final Accounts accounts;
+public class GetFilesOwners implements ETagView<RevisionResource> {
   private final AccountCache accountCache;
   private final ProjectCache projectCache;
   private final GitRepositoryManager repositoryManager;
   private final DiffOperations diffOperations;
   private final PluginSettings pluginSettings;
-  private final GerritApi gerritApi;
-  private final PathOwnersEntriesCache cache;
+  private final BranchOwnersCache branchOwnersCache;
+  private final AutoApprovalDecisionCache autoApprovalDecisions;
 
   static final String MISSING_CODE_REVIEW_LABEL =
       "Cannot calculate file owners state when review label is not configured";
+
+  /**
+   * Responses can be kept by the browser, which revalidates them with their ETag before each use.
+   */
+  static final CacheControl REVALIDATE =
+      CacheControl.PRIVATE(0, TimeUnit.SECONDS).setMustRevalidate();
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
 
+  private boolean onlyOwners;
+
+  @Option(
+      name = "--only-owners",
+      usage = "only return the labels of the accounts that own at least one file")
+  public void setOnlyOwners(boolean onlyOwners) {
+    this.onlyOwners = onlyOwners;
+  }
+
+  private int start;
+  private int limit;
+  private String pathPrefix;
+  private String pathRegex;
+
+  @Option(
+      name = "--start",
+      aliases = {"-S"},
+      metaVar = "CNT",
+      usage = "number of files to skip, in path order")
+  public void setStart(int start) {
+    this.start = start;
+  }
+
+  @Option(
+      name = "--limit",
+      aliases = {"-n"},
+      metaVar = "CNT",
+      usage = "maximum number of files to return")
+  public void setLimit(int limit) {
+    this.limit = limit;
+  }
+
+  @Option(
+      name = "--path-prefix",
+      metaVar = "PREFIX",
+      usage = "only return the files whose path starts with the prefix")
+  public void setPathPrefix(String pathPrefix) {
+    this.pathPrefix = pathPrefix;
+  }
+
+  @Option(
+      name = "--path-regex",
+      metaVar = "REGEX",
+      usage = "only return the files whose path matches the regular expression")
+  public void setPathRegex(String pathRegex) {
+    this.pathRegex = pathRegex;
+  }
+
   @Inject
   GetFilesOwners(
-      Accounts accounts,
       AccountCache accountCache,
       ProjectCache projectCache,
       GitRepositoryManager repositoryManager,
       DiffOperations diffOperations,
       PluginSettings pluginSettings,
-      GerritApi gerritApi,
-      PathOwnersEntriesCache cache) {
-    this.accounts = accounts;
+      BranchOwnersCache branchOwnersCache,
+      AutoApprovalDecisionCache autoApprovalDecisions) {
     this.accountCache = accountCache;
     this.projectCache = projectCache;
     this.repositoryManager = repositoryManager;
     this.diffOperations = diffOperations;
     this.pluginSettings = pluginSettings;
-    this.gerritApi = gerritApi;
-    this.cache = cache;
+    this.branchOwnersCache = branchOwnersCache;
+    this.autoApprovalDecisions = autoApprovalDecisions;
   }
 
   public boolean isAnyFileOwnedBy(
       Account.Id owner, Set<String> changePaths, Project.NameKey project, String branch)
       throws IOException, InvalidOwnersFileException {
-    return !filterFilesOwnedBy(owner, changePaths, project, branch).isEmpty();
+    return resolveOwnership(project, branch, changePaths).isAnyFileOwnedBy(owner, changePaths);
   }
 
   public Set<String> filterFilesOwnedBy(
       Account.Id owner, Set<String> changePaths, Project.NameKey project, String branch)
       throws IOException, InvalidOwnersFileException {
-    PathOwners owners = getPathOwners(project, branch, changePaths);
-    Map<String, Set<Account.Id>> filesWithOwner = owners.getFileOwners();
-
-    return changePaths.stream()
-        .filter(filePath -> filesWithOwner.getOrDefault(filePath, Set.of()).contains(owner))
-        .collect(Collectors.toSet());
+    return resolveOwnership(project, branch, changePaths).filterFilesOwnedBy(owner, changePaths);
   }
 
   public boolean allOwnedFilesAllowAutoApproval(
       Set<String> ownedPaths, Project.NameKey project, String branch)
       throws IOException, InvalidOwnersFileException {
-    PathOwners owners = getPathOwners(project, branch, ownedPaths);
-    Set<String> filesAllowedForOwnersAutoApproval = owners.getFileOwnersAllowedAutoApproval();
+    return resolveOwnership(project, branch, ownedPaths)
+        .getFileOwnersAllowedAutoApproval()
+        .containsAll(ownedPaths);
+  }
+
+  /**
+   * Resolves the ownership of the paths once, so that the callers needing several answers about
+   * the same paths, e.g. which of them an account owns and whether they allow auto-approval, can
+   * query the returned snapshot instead of resolving the OWNERS again.
+   */
+  public ResolvedOwnership resolveOwnership(
+      Project.NameKey project, String branch, Set<String> paths)
+      throws IOException, InvalidOwnersFileException {
+    try (Repository repository = repositoryManager.openRepository(project)) {
+      return resolveOwnership(
+          repository, projectCache.get(project).orElseThrow(illegalState(project)), branch, paths);
+    }
+  }
 
-    return filesAllowedForOwnersAutoApproval.containsAll(ownedPaths);
+  /**
+   * Derived from cheap inputs only: the ETag of the change (votes, patch-sets, accounts of its
+   * users), the revisions of the branch and of `refs/meta/config` of the project hierarchy, which
+   * the OWNERS files are read from, and the request options.
+   */
+  @Override
+  public String getETag(RevisionResource revision) {
+    Change change = revision.getChange();
+    Project.NameKey project = change.getProject();
+    String branch = change.getDest().branch();
+
+    Hasher hasher =
+        Hashing.murmur3_128()
+            .newHasher()
+            .putString(revision.getChangeResource().getETag(), UTF_8)
+            .putString(revision.getPatchSet().commitId().name(), UTF_8)
+            .putBoolean(onlyOwners)
+            .putInt(start)
+            .putInt(limit)
+            .putString(Strings.nullToEmpty(pathPrefix), UTF_8)
+            .putString(Strings.nullToEmpty(pathRegex), UTF_8);
+    try (Repository repository = repositoryManager.openRepository(project)) {
+      hasher.putString(
+          OwnersFingerprint.branchRevision(
+              repository,
+              projectCache.get(project).orElseThrow(illegalState(project)),
+              pluginSettings.isBranchDisabled(branch) ? Optional.empty() : Optional.of(branch)),
+          UTF_8);
+    } catch (IOException e) {
+      throw new StorageException(
+          String.format("Unable to compute the OWNERS revision of change %s", change.getId()), e);
+    }
+    return hasher.hash().toString();
   }
 
   @Override
@@ -137,97 +242,249 @@ public class GetFilesOwners implements RestReadView<RevisionResource> {
     Change change = revision.getChange();
     ChangeData changeData = revision.getChangeResource().getChangeData();
 
-    Project.NameKey project = change.getProject();
     try {
-      Set<String> changePaths = new HashSet<>(changeData.currentFilePaths());
-
-      String branch = change.getDest().branch();
-      PathOwners owners = getPathOwners(project, branch, changePaths);
-
-      Map<String, Set<GroupOwner>> fileExpandedOwners =
-          Maps.transformValues(
-              owners.getFileOwners(),
-              ids ->
-                  ids.stream()
-                      .map(this::getOwnerFromAccountId)
-                      .flatMap(Optional::stream)
-                      .collect(Collectors.toSet()));
-
-      Map<String, Set<GroupOwner>> fileToOwners =
-          pluginSettings.expandGroups()
-              ? fileExpandedOwners
-              : Maps.transformValues(
-                  owners.getFileGroupOwners(),
-                  groupNames ->
-                      groupNames.stream().map(GroupOwner::new).collect(Collectors.toSet()));
-
-      Map<Integer, Map<String, Integer>> ownersLabels = getLabels(change.getChangeId());
-
-      LabelAndScore label = getLabelDefinition(owners, changeData);
-
-      Map<String, Set<GroupOwner>> filesWithPendingOwners =
-          Maps.filterEntries(
-              fileToOwners,
-              (fileOwnerEntry) ->
-                  !isApprovedByOwner(
-                      fileExpandedOwners.get(fileOwnerEntry.getKey()), ownersLabels, label));
-
-      Map<String, Set<GroupOwner>> filesApprovedByOwners =
-          Maps.filterEntries(
-              fileToOwners,
-              (fileOwnerEntry) ->
-                  isApprovedByOwner(
-                      fileExpandedOwners.get(fileOwnerEntry.getKey()), ownersLabels, label));
-
-      Map<String, Set<GroupOwner>> filesAutoApprovedByOwners;
-      Map<String, Set<GroupOwner>> filesExplicitlyApprovedByOwners;
-      Set<String> filesAllowedAutoApproval = owners.getFileOwnersAllowedAutoApproval();
-
-      if (Sets.intersection(filesAllowedAutoApproval, filesApprovedByOwners.keySet()).isEmpty()) {
-        filesAutoApprovedByOwners = Map.of();
-        filesExplicitlyApprovedByOwners = filesApprovedByOwners;
-      } else {
-        Set<String> filesAutoApproved =
-            getFilesAutoApproved(revision, changeData, filesApprovedByOwners);
-        filesAutoApprovedByOwners =
-            Maps.filterKeys(filesApprovedByOwners, filesAutoApproved::contains);
-        filesExplicitlyApprovedByOwners =
-            Maps.filterKeys(
-                filesApprovedByOwners, filePath -> !filesAutoApproved.contains(filePath));
+      List<String> requestedPaths = filterPaths(changeData.currentFilePaths());
+      boolean moreFiles = limit > 0 && requestedPaths.size() > limit;
+      if (moreFiles) {
+        requestedPaths = requestedPaths.subList(0, limit);
       }
 
+      // Only the reported files are resolved, together with the first file of the change whose
+      // OWNERS define the label of the change
+      Set<String> reportedPaths = new HashSet<>(requestedPaths);
+      Set<String> resolvedPaths = new HashSet<>(reportedPaths);
+      changeData.currentFilePaths().stream()
+          .min(Comparator.naturalOrder())
+          .ifPresent(resolvedPaths::add);
+      ResolvedOwnership owners =
+          resolveOwnership(change.getProject(), change.getDest().branch(), resolvedPaths);
+
       return Response.ok(
-          new FilesOwnersResponse(
-              ownersLabels,
-              filesWithPendingOwners,
-              filesExplicitlyApprovedByOwners,
-              filesAutoApprovedByOwners));
+              getFilesOwners(
+                  revision,
+                  owners,
+                  reportedPaths,
+                  getOwnersFromAccountIds(accountIds(owners, reportedPaths)),
+                  limit > 0 ? moreFiles : null))
+          .caching(REVALIDATE);
     } catch (InvalidOwnersFileException e) {
       logger.atSevere().withCause(e).log("Reading/parsing OWNERS file error.");
       throw new ResourceConflictException(e.getMessage(), e);
     }
   }
 
-  private PathOwners getPathOwners(Project.NameKey project, String branch, Set<String> changePaths)
-      throws InvalidOwnersFileException, IOException {
-    List<Project.NameKey> projectParents =
-        projectCache.get(project).map(PathOwners::getParents).orElse(Collections.emptyList());
+  /**
+   * Resolves the ownership of the paths from the OWNERS snapshot of the branch, shared with all the
+   * changes targeting it.
+   */
+  ResolvedOwnership resolveOwnership(
+      Repository repository, ProjectState projectState, String branch, Set<String> paths)
+      throws IOException, InvalidOwnersFileException {
+    return branchOwnersCache.resolve(
+        repository,
+        projectState,
+        pluginSettings.isBranchDisabled(branch) ? Optional.empty() : Optional.of(branch),
+        paths);
+  }
+
+  /**
+   * Resolves the ownership of the paths from the OWNERS snapshot of the branch, when there is one,
+   * without memoizing the paths it does not know yet.
+   */
+  ResolvedOwnership resolveOwnershipWithoutMemoizing(
+      Repository repository, ProjectState projectState, String branch, Set<String> paths)
+      throws IOException, InvalidOwnersFileException {
+    return branchOwnersCache.resolveWithoutMemoizing(
+        repository,
+        projectState,
+        pluginSettings.isBranchDisabled(branch) ? Optional.empty() : Optional.of(branch),
+        paths);
+  }
+
+  /** Returns the accounts that own at least one of the paths, when groups are expanded. */
+  Set<Account.Id> accountIds(ResolvedOwnership owners) {
+    return accountIds(owners, owners.getPaths());
+  }
+
+  /**
+   * Returns the accounts that own at least one of the given paths, among the resolved ones, when
+   * groups are expanded.
+   */
+  Set<Account.Id> accountIds(ResolvedOwnership owners, Set<String> paths) {
+    Set<Account.Id> accountIds = new HashSet<>();
+    if (pluginSettings.expandGroups()) {
+      Maps.filterKeys(owners.getFileOwners(), paths::contains).values().forEach(accountIds::addAll);
+    }
+    return accountIds;
+  }
+
+  /**
+   * Computes the files owners response of a revision from the already resolved ownership of the
+   * given paths and of the first file of the revision, and the already loaded owner accounts. Only
+   * the given paths are reported, but the owners labels are filtered over all the files.
+   */
+  FilesOwnersResponse getFilesOwners(
+      RevisionResource revision,
+      ResolvedOwnership owners,
+      Set<String> paths,
+      Map<Account.Id, Owner> accountOwners,
+      Boolean moreFiles)
+      throws ResourceNotFoundException,
+          IOException,
+          InvalidOwnersFileException,
+          DiffNotAvailableException {
+    ChangeData changeData = revision.getChangeResource().getChangeData();
+
+    Map<String, Set<GroupOwner>> fileToOwners = getFileToOwners(owners, paths, accountOwners);
+
+    Map<Integer, Map<String, Integer>> ownersLabels = getLabels(changeData);
+    if (onlyOwners) {
+      Set<Integer> ownerIds = new HashSet<>();
+      getAllFilesOwners(changeData, owners)
+          .values()
+          .forEach(ids -> ids.forEach(id -> ownerIds.add(id.get())));
+      ownersLabels.keySet().retainAll(ownerIds);
+    }
+
+    LabelAndScore label = getLabelDefinition(owners, changeData);
+
+    Set<String> filesApproved = new HashSet<>();
+    for (Map.Entry<Set<Account.Id>, List<String>> ownerSet :
+        OwnerSets.groupByOwners(owners.getFileOwners()).entrySet()) {
+      if (isApprovedByOwner(ownerSet.getKey(), ownersLabels, label)) {
+        filesApproved.addAll(ownerSet.getValue());
+      }
+    }
+
+    // Every file goes into exactly one of the pending, approved and auto-approved maps
+    Map<String, Set<GroupOwner>> filesWithPendingOwners = new HashMap<>();
+    Map<String, Set<GroupOwner>> filesApprovedByOwners = new HashMap<>();
+    fileToOwners.forEach(
+        (filePath, fileOwners) ->
+            (filesApproved.contains(filePath) ? filesApprovedByOwners : filesWithPendingOwners)
+                .put(filePath, fileOwners));
+
+    Map<String, Set<GroupOwner>> filesAutoApprovedByOwners = new HashMap<>();
+    Set<String> filesAllowedAutoApproval = owners.getFileOwnersAllowedAutoApproval();
+
+    if (!Sets.intersection(filesAllowedAutoApproval, filesApprovedByOwners.keySet()).isEmpty()) {
+      for (String filePath :
+          getFilesAutoApproved(revision, changeData, owners, filesApprovedByOwners)) {
+        filesAutoApprovedByOwners.put(filePath, filesApprovedByOwners.remove(filePath));
+      }
+    }
+
+    return new FilesOwnersResponse(
+        ownersLabels,
+        filesWithPendingOwners,
+        filesApprovedByOwners,
+        filesAutoApprovedByOwners,
+        moreFiles);
+  }
+
+  /**
+   * Returns the owners of all the files of the revision. When only some of them were resolved, the
+   * others are read from the OWNERS snapshot of the branch, where the owners evaluation of the
+   * change normally left them, without memoizing the ones it does not know.
+   */
+  private Map<String, Set<Account.Id>> getAllFilesOwners(
+      ChangeData changeData, ResolvedOwnership owners)
+      throws IOException, InvalidOwnersFileException {
+    Set<String> allPaths = new HashSet<>(changeData.currentFilePaths());
+    if (owners.covers(allPaths)) {
+      return owners.getFileOwners();
+    }
+
+    Project.NameKey project = changeData.project();
     try (Repository repository = repositoryManager.openRepository(project)) {
-      return new PathOwners(
-          accounts,
-          repositoryManager,
-          repository,
-          projectParents,
-          pluginSettings.isBranchDisabled(branch) ? Optional.empty() : Optional.of(branch),
-          changePaths,
-          pluginSettings.expandGroups(),
-          project.get(),
-          cache,
-          pluginSettings.globalLabel());
+      return resolveOwnershipWithoutMemoizing(
+              repository,
+              projectCache.get(project).orElseThrow(illegalState(project)),
+              changeData.change().getDest().branch(),
+              allPaths)
+          .getFileOwners();
+    }
+  }
+
+  /**
+   * Returns the paths selected by the filter and pagination options, in path order. One more path
+   * than the limit is returned, if available, so that the caller can tell whether there are more
+   * files. Only the owners of the selected paths are loaded and reported.
+   */
+  private List<String> filterPaths(Collection<String> paths) throws BadRequestException {
+    if (start < 0) {
+      throw new BadRequestException("start must not be negative");
+    }
+    if (limit < 0) {
+      throw new BadRequestException("limit must not be negative");
+    }
+
+    Stream<String> selectedPaths = paths.stream().sorted();
+    if (!Strings.isNullOrEmpty(pathPrefix)) {
+      selectedPaths = selectedPaths.filter(path -> path.startsWith(pathPrefix));
+    }
+    if (!Strings.isNullOrEmpty(pathRegex)) {
+      Predicate<String> matchesRegex;
+      try {
+        matchesRegex = Pattern.compile(pathRegex).asMatchPredicate();
+      } catch (PatternSyntaxException e) {
+        throw new BadRequestException(String.format("invalid path-regex: %s", e.getMessage()), e);
+      }
+      selectedPaths = selectedPaths.filter(matchesRegex);
+    }
+    selectedPaths = selectedPaths.skip(start);
+    if (limit > 0) {
+      selectedPaths = selectedPaths.limit(limit + 1L);
+    }
+    return selectedPaths.collect(Collectors.toList());
+  }
+
+  /**
+   * Resolves the owners of every owned file. Files sharing the same set of owners, which is the
+   * common case for files of the same directory, share the same resolved set. Each account is
+   * represented by the single {@link Owner} loaded for it.
+   */
+  Map<String, Set<GroupOwner>> getFileToOwners(
+      ResolvedOwnership owners, Map<Account.Id, Owner> accountOwners) {
+    return getFileToOwners(owners, owners.getPaths(), accountOwners);
+  }
+
+  /** Same as {@link #getFileToOwners(ResolvedOwnership, Map)}, restricted to the given paths. */
+  private Map<String, Set<GroupOwner>> getFileToOwners(
+      ResolvedOwnership owners, Set<String> paths, Map<Account.Id, Owner> accountOwners) {
+    Map<String, Set<GroupOwner>> fileToOwners = new HashMap<>();
+    if (pluginSettings.expandGroups()) {
+      Map<Set<Account.Id>, Set<GroupOwner>> resolvedOwners = new HashMap<>();
+      Maps.filterKeys(owners.getFileOwners(), paths::contains)
+          .forEach(
+              (filePath, ids) ->
+                  fileToOwners.put(
+                      filePath,
+                      resolvedOwners.computeIfAbsent(
+                          ids,
+                          accountIds ->
+                              accountIds.stream()
+                                  .map(accountOwners::get)
+                                  .filter(Objects::nonNull)
+                                  .collect(Collectors.toUnmodifiableSet()))));
+    } else {
+      Map<Set<String>, Set<GroupOwner>> resolvedOwners = new HashMap<>();
+      Maps.filterKeys(owners.getFileGroupOwners(), paths::contains)
+          .forEach(
+              (filePath, groupNames) ->
+                  fileToOwners.put(
+                      filePath,
+                      resolvedOwners.computeIfAbsent(
+                          groupNames,
+                          names ->
+                              names.stream()
+                                  .map(GroupOwner::new)
+                                  .collect(Collectors.toUnmodifiableSet()))));
     }
+    return fileToOwners;
   }
 
-  private LabelAndScore getLabelDefinition(PathOwners owners, ChangeData changeData)
+  private LabelAndScore getLabelDefinition(ResolvedOwnership owners, ChangeData changeData)
       throws ResourceNotFoundException {
 
     try {
@@ -242,7 +499,8 @@ public class GetFilesOwners implements RestReadView<RevisionResource> {
     }
   }
 
-  private Optional<LabelAndScore> getLabelFromOwners(PathOwners owners, ChangeData changeData)
+  private Optional<LabelAndScore> getLabelFromOwners(
+      ResolvedOwnership owners, ChangeData changeData)
       throws LabelNotFoundException {
     return owners
         .getLabel()
@@ -265,19 +523,18 @@ public class GetFilesOwners implements RestReadView<RevisionResource> {
   }
 
   private boolean isApprovedByOwner(
-      Set<GroupOwner> fileOwners,
+      Set<Account.Id> fileOwners,
       Map<Integer, Map<String, Integer>> ownersLabels,
       LabelAndScore label) {
     return fileOwners.stream()
-        .filter(owner -> owner instanceof Owner)
-        .map(owner -> ((Owner) owner).getId())
-        .flatMap(ownerId -> codeReviewLabelValue(ownersLabels, ownerId, label.getLabelId()))
+        .flatMap(ownerId -> codeReviewLabelValue(ownersLabels, ownerId.get(), label.getLabelId()))
         .anyMatch(value -> value >= label.getScore());
   }
 
   private Set<String> getFilesAutoApproved(
       RevisionResource revision,
       ChangeData changeData,
+      ResolvedOwnership owners,
       Map<String, Set<GroupOwner>> filesApprovedByOwners)
       throws IOException, InvalidOwnersFileException, DiffNotAvailableException {
     PatchSet sourcePatchSet = getPreviousPatchSet(revision);
@@ -285,14 +542,6 @@ public class GetFilesOwners implements RestReadView<RevisionResource> {
       return Set.of();
     }
     Account.Id ownerId = revision.getChange().getOwner();
-    String branch = changeData.change().getDest().branch();
-    Project.NameKey project = changeData.project();
-
-    Set<String> allFilesTouchedInTheLastPatchSet =
-        touchedPaths(
-            modifiedFilesBetweenPatchSets(
-                diffOperations, project, sourcePatchSet, revision.getPatchSet()));
-
     Map<Account.Id, List<PatchSetApproval>> approvalsByAccount =
         changeData.currentApprovals().stream()
             .collect(Collectors.groupingBy(PatchSetApproval::accountId));
@@ -306,23 +555,56 @@ public class GetFilesOwners implements RestReadView<RevisionResource> {
       return Set.of();
     }
 
-    // Otherwise we check if the change owner was eligible for auto-owners-approved
+    // Otherwise we check if the change owner was eligible for auto-owners-approved, as decided by
+    // the copy condition when the patch-set was uploaded.
+    Optional<ImmutableSet<String>> decision =
+        autoApprovalDecisions.get(revision.getPatchSet().id());
+    boolean autoApproved =
+        decision.isPresent()
+            ? !decision.get().isEmpty()
+            : isAutoApprovedByChangeOwner(revision, changeData, owners, sourcePatchSet);
+    if (!autoApproved) {
+      return Set.of();
+    }
+
+    return getAutoApprovedFiles(filesApprovedByOwners, approvalsByAccount);
+  }
+
+  /**
+   * Evaluates whether the change owner was eligible for auto-owners-approved on the patch-set, for
+   * the patch-sets whose copy condition decision is not known, e.g. because it was evicted.
+   */
+  private boolean isAutoApprovedByChangeOwner(
+      RevisionResource revision,
+      ChangeData changeData,
+      ResolvedOwnership owners,
+      PatchSet sourcePatchSet)
+      throws IOException, InvalidOwnersFileException, DiffNotAvailableException {
+    Account.Id ownerId = revision.getChange().getOwner();
+    String branch = changeData.change().getDest().branch();
+    Project.NameKey project = changeData.project();
+
+    Set<String> allFilesTouchedInTheLastPatchSet =
+        touchedPaths(
+            modifiedFilesBetweenPatchSets(
+                diffOperations, project, sourcePatchSet, revision.getPatchSet()));
+
+    // The ownership of the request is reused unless the last patch-set touched paths outside of
+    // it, e.g. the old path of a renamed file.
+    ResolvedOwnership touchedOwners =
+        owners.covers(allFilesTouchedInTheLastPatchSet)
+            ? owners
+            : resolveOwnership(project, branch, allFilesTouchedInTheLastPatchSet);
     Set<String> filesOwnedByChangeOwnerInTheLastPatchSet =
-        filterFilesOwnedBy(ownerId, allFilesTouchedInTheLastPatchSet, project, branch);
+        touchedOwners.filterFilesOwnedBy(ownerId, allFilesTouchedInTheLastPatchSet);
 
-    if (!allowsAutoApprovalOnPatch(
+    return allowsAutoApprovalOnPatch(
         ownerId,
         ownerId,
         revision.getPatchSet().uploader(),
         filesOwnedByChangeOwnerInTheLastPatchSet,
         allFilesTouchedInTheLastPatchSet,
-        this,
-        project,
-        branch)) {
-      return Set.of();
-    }
-
-    return getAutoApprovedFiles(filesApprovedByOwners, approvalsByAccount);
+        touchedOwners);
   }
 
   private Set<String> getAutoApprovedFiles(
@@ -374,8 +656,10 @@ public class GetFilesOwners implements RestReadView<RevisionResource> {
   }
 
   /**
-   * This method returns ta Map representing the "owners_labels" object of the response. When
-   * serialized the Map, has to to return the following JSON: the following JSON:
+   * Returns the current votes on the change by account and label, which is the "owners_labels"
+   * object of the response. Like in the detailed labels of the change, reviewers are reported with
+   * a zero score on the labels they did not vote on. When serialized the Map returns the following
+   * JSON:
    *
    * <pre>
    * {
@@ -391,35 +675,38 @@ public class GetFilesOwners implements RestReadView<RevisionResource> {
    *
    * </pre>
    */
-  private Map<Integer, Map<String, Integer>> getLabels(int id) throws RestApiException {
-    ChangeInfo changeInfo =
-        gerritApi.changes().id(id).get(EnumSet.of(ListChangesOption.DETAILED_LABELS));
-
+  private Map<Integer, Map<String, Integer>> getLabels(ChangeData changeData) {
+    LabelTypes labelTypes = changeData.getLabelTypes();
     Map<Integer, Map<String, Integer>> ownerToLabels = new HashMap<>();
 
-    changeInfo.labels.forEach(
-        (label, labelInfo) -> {
-          Optional.ofNullable(labelInfo.all)
-              .ifPresent(
-                  approvalInfos -> {
-                    approvalInfos.forEach(
-                        approvalInfo -> {
-                          int currentOwnerId = approvalInfo._accountId;
-                          Map<String, Integer> currentOwnerLabels =
-                              ownerToLabels.getOrDefault(currentOwnerId, new HashMap<>());
-                          currentOwnerLabels.put(label, approvalInfo.value);
-                          ownerToLabels.put(currentOwnerId, currentOwnerLabels);
-                        });
-                  });
-        });
+    for (Account.Id reviewer : changeData.reviewers().byState(ReviewerStateInternal.REVIEWER)) {
+      Map<String, Integer> reviewerLabels =
+          ownerToLabels.computeIfAbsent(reviewer.get(), id -> new HashMap<>());
+      labelTypes.getLabelTypes().forEach(labelType -> reviewerLabels.put(labelType.getName(), 0));
+    }
+
+    for (PatchSetApproval approval : changeData.currentApprovals()) {
+      labelTypes
+          .byLabel(approval.label())
+          .ifPresent(
+              labelType ->
+                  ownerToLabels
+                      .computeIfAbsent(approval.accountId().get(), id -> new HashMap<>())
+                      .put(labelType.getName(), (int) approval.value()));
+    }
 
     return ownerToLabels;
   }
 
-  private Optional<Owner> getOwnerFromAccountId(Account.Id accountId) {
-    return accountCache
-        .get(accountId)
-        .map(as -> new Owner(as.account().fullName(), as.account().id().get()));
+  /** Loads all the accounts at once, each of them represented by a single {@link Owner}. */
+  Map<Account.Id, Owner> getOwnersFromAccountIds(Set<Account.Id> accountIds) {
+    Map<Account.Id, Owner> owners = new HashMap<>();
+    accountCache
+        .get(accountIds)
+        .forEach(
+            (accountId, as) ->
+                owners.put(accountId, new Owner(as.account().fullName(), accountId.get())));
+    return owners;
   }
 
   static class LabelNotFoundException extends RuntimeException {
@@ -0,0 +1,88 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners.restapi;
+
+import com.google.gerrit.extensions.restapi.ETagView;
+import com.google.gerrit.extensions.restapi.Response;
+import com.google.gerrit.server.change.RevisionResource;
+import com.google.inject.Inject;
+import com.googlesource.gerrit.owners.entities.CompactFilesOwnersResponse;
+import org.kohsuke.args4j.Option;
+
+/**
+ * Same as {@link GetFilesOwners}, but every distinct set of owners is returned only once and files
+ * refer to it by index, which keeps the response small on changes with many files owned by the
+ * same few sets of owners.
+ */
+public class GetFilesOwnersCompact implements ETagView<RevisionResource> {
+  private final GetFilesOwners getFilesOwners;
+
+  @Option(
+      name = "--only-owners",
+      usage = "only return the labels of the accounts that own at least one file")
+  public void setOnlyOwners(boolean onlyOwners) {
+    getFilesOwners.setOnlyOwners(onlyOwners);
+  }
+
+  @Option(
+      name = "--start",
+      aliases = {"-S"},
+      metaVar = "CNT",
+      usage = "number of files to skip, in path order")
+  public void setStart(int start) {
+    getFilesOwners.setStart(start);
+  }
+
+  @Option(
+      name = "--limit",
+      aliases = {"-n"},
+      metaVar = "CNT",
+      usage = "maximum number of files to return")
+  public void setLimit(int limit) {
+    getFilesOwners.setLimit(limit);
+  }
+
+  @Option(
+      name = "--path-prefix",
+      metaVar = "PREFIX",
+      usage = "only return the files whose path starts with the prefix")
+  public void setPathPrefix(String pathPrefix) {
+    getFilesOwners.setPathPrefix(pathPrefix);
+  }
+
+  @Option(
+      name = "--path-regex",
+      metaVar = "REGEX",
+      usage = "only return the files whose path matches the regular expression")
+  public void setPathRegex(String pathRegex) {
+    getFilesOwners.setPathRegex(pathRegex);
+  }
+
+  @Inject
+  GetFilesOwnersCompact(GetFilesOwners getFilesOwners) {
+    this.getFilesOwners = getFilesOwners;
+  }
+
+  @Override
+  public String getETag(RevisionResource revision) {
+    return getFilesOwners.getETag(revision);
+  }
+
+  @Override
+  public Response<CompactFilesOwnersResponse> apply(RevisionResource revision) throws Exception {
+    return Response.ok(CompactFilesOwnersResponse.of(getFilesOwners.apply(revision).value()))
+        .caching(GetFilesOwners.REVALIDATE);
+  }
+}
@@ -0,0 +1,97 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners.restapi;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.restapi.BadRequestException;
+import com.google.gerrit.extensions.restapi.ResourceConflictException;
+import com.google.gerrit.extensions.restapi.Response;
+import com.google.gerrit.extensions.restapi.RestReadView;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.project.BranchResource;
+import com.google.inject.Inject;
+import com.googlesource.gerrit.owners.ResolvedOwnership;
+import com.googlesource.gerrit.owners.common.InvalidOwnersFileException;
+import com.googlesource.gerrit.owners.entities.GroupOwner;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.jgit.lib.Repository;
+import org.kohsuke.args4j.Option;
+
+/**
+ * Returns the owners of arbitrary paths at the tip of a branch, without the need of a change. The
+ * ownership is served from the OWNERS snapshot of the branch shared with the changes targeting it,
+ * therefore no diff is computed and paths already resolved for the branch tip are not resolved
+ * again. The paths it does not know yet are resolved for the request only, so that arbitrary paths
+ * do not fill the snapshot at the expense of the ones of the changes.
+ *
+ * <p>Each of those paths costs the evaluation of the matchers of all the OWNERS files of its
+ * directories, and the reading of the ones not cached yet, therefore the number of paths of a
+ * request is limited.
+ */
+public class GetPathsOwners implements RestReadView<BranchResource> {
+  static final int MAX_PATHS = 100;
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private final GitRepositoryManager repositoryManager;
+  private final GetFilesOwners getFilesOwners;
+
+  private final Set<String> paths = new HashSet<>();
+
+  @Option(
+      name = "--path",
+      aliases = {"-p"},
+      metaVar = "PATH",
+      usage = "path to return the owners of, can be repeated")
+  public void addPath(String path) {
+    paths.add(path.startsWith("/") ? path.substring(1) : path);
+  }
+
+  @Inject
+  GetPathsOwners(GitRepositoryManager repositoryManager, GetFilesOwners getFilesOwners) {
+    this.repositoryManager = repositoryManager;
+    this.getFilesOwners = getFilesOwners;
+  }
+
+  @Override
+  public Response<Map<String, Set<GroupOwner>>> apply(BranchResource branch)
+      throws BadRequestException, ResourceConflictException, IOException {
+    if (paths.isEmpty()) {
+      throw new BadRequestException("at least one path is required");
+    }
+    if (paths.size() > MAX_PATHS) {
+      throw new BadRequestException(
+          String.format("at most %d paths can be requested at once", MAX_PATHS));
+    }
+
+    Project.NameKey project = branch.getNameKey();
+    try (Repository repository = repositoryManager.openRepository(project)) {
+      ResolvedOwnership owners =
+          getFilesOwners.resolveOwnershipWithoutMemoizing(
+              repository, branch.getProjectState(), branch.getRef(), paths);
+      return Response.ok(
+          getFilesOwners.getFileToOwners(
+              owners,
+              getFilesOwners.getOwnersFromAccountIds(getFilesOwners.accountIds(owners))));
+    } catch (InvalidOwnersFileException e) {
+      logger.atSevere().withCause(e).log("Reading/parsing OWNERS file error.");
+      throw new ResourceConflictException(e.getMessage(), e);
+    }
+  }
+}
@@ -0,0 +1,201 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners.restapi;
+
+import static com.google.gerrit.server.project.ProjectCache.illegalState;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.restapi.BadRequestException;
+import com.google.gerrit.extensions.restapi.IdString;
+import com.google.gerrit.extensions.restapi.Response;
+import com.google.gerrit.extensions.restapi.RestApiException;
+import com.google.gerrit.extensions.restapi.RestModifyView;
+import com.google.gerrit.extensions.restapi.TopLevelResource;
+import com.google.gerrit.server.change.ChangeResource;
+import com.google.gerrit.server.change.RevisionResource;
+import com.google.gerrit.server.config.ConfigResource;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.patch.DiffNotAvailableException;
+import com.google.gerrit.server.permissions.PermissionBackendException;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.gerrit.server.project.ProjectState;
+import com.google.gerrit.server.restapi.change.ChangesCollection;
+import com.google.gerrit.server.restapi.change.Revisions;
+import com.google.inject.Inject;
+import com.googlesource.gerrit.owners.ResolvedOwnership;
+import com.googlesource.gerrit.owners.common.InvalidOwnersFileException;
+import com.googlesource.gerrit.owners.entities.ChangeFilesOwnersResponse;
+import com.googlesource.gerrit.owners.entities.Owner;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Returns the files owners of many changes at once. The OWNERS files are resolved once per project
+ * and branch for all the changes targeting them, and the owner accounts of all the changes are
+ * loaded at once. Each change succeeds or fails independently of the others.
+ */
+public class PostFilesOwners implements RestModifyView<ConfigResource, PostFilesOwners.Input> {
+  public static class Input {
+    public List<ChangeRevision> changes;
+    public boolean onlyOwners;
+  }
+
+  public static class ChangeRevision {
+    public String change;
+    public String revision;
+  }
+
+  static final String CURRENT = "current";
+  static final int MAX_CHANGES = 100;
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private final ChangesCollection changes;
+  private final Revisions revisions;
+  private final ProjectCache projectCache;
+  private final GitRepositoryManager repositoryManager;
+  private final GetFilesOwners getFilesOwners;
+
+  @Inject
+  PostFilesOwners(
+      ChangesCollection changes,
+      Revisions revisions,
+      ProjectCache projectCache,
+      GitRepositoryManager repositoryManager,
+      GetFilesOwners getFilesOwners) {
+    this.changes = changes;
+    this.revisions = revisions;
+    this.projectCache = projectCache;
+    this.repositoryManager = repositoryManager;
+    this.getFilesOwners = getFilesOwners;
+  }
+
+  @Override
+  public Response<List<ChangeFilesOwnersResponse>> apply(ConfigResource resource, Input input)
+      throws BadRequestException {
+    if (input == null || input.changes == null || input.changes.isEmpty()) {
+      throw new BadRequestException("changes are required");
+    }
+    if (input.changes.size() > MAX_CHANGES) {
+      throw new BadRequestException(
+          String.format("at most %d changes can be requested at once", MAX_CHANGES));
+    }
+    getFilesOwners.setOnlyOwners(input.onlyOwners);
+
+    List<BatchEntry> entries = new ArrayList<>(input.changes.size());
+    Map<Project.NameKey, List<BatchEntry>> entriesByProject = new LinkedHashMap<>();
+    for (ChangeRevision changeRevision : input.changes) {
+      if (changeRevision == null || changeRevision.change == null) {
+        throw new BadRequestException("change is required");
+      }
+      BatchEntry entry =
+          new BatchEntry(
+              changeRevision.change, MoreObjects.firstNonNull(changeRevision.revision, CURRENT));
+      entries.add(entry);
+      try {
+        ChangeResource change =
+            changes.parse(TopLevelResource.INSTANCE, IdString.fromDecoded(entry.change));
+        entry.revisionResource = revisions.parse(change, IdString.fromDecoded(entry.revision));
+        entriesByProject
+            .computeIfAbsent(change.getProject(), project -> new ArrayList<>())
+            .add(entry);
+      } catch (RestApiException | PermissionBackendException | IOException e) {
+        entry.error = e.getMessage();
+      }
+    }
+
+    Set<Account.Id> accountIds = new HashSet<>();
+    entriesByProject.forEach(
+        (project, projectEntries) -> resolveOwnership(project, projectEntries, accountIds));
+    Map<Account.Id, Owner> accountOwners = getFilesOwners.getOwnersFromAccountIds(accountIds);
+
+    List<ChangeFilesOwnersResponse> results = new ArrayList<>(entries.size());
+    for (BatchEntry entry : entries) {
+      if (entry.owners != null) {
+        try {
+          results.add(
+              ChangeFilesOwnersResponse.success(
+                  entry.change,
+                  entry.revision,
+                  getFilesOwners.getFilesOwners(
+                      entry.revisionResource,
+                      entry.owners,
+                      entry.owners.getPaths(),
+                      accountOwners,
+                      null)));
+          continue;
+        } catch (RestApiException
+            | IOException
+            | InvalidOwnersFileException
+            | DiffNotAvailableException e) {
+          entry.error = e.getMessage();
+        }
+      }
+      results.add(ChangeFilesOwnersResponse.failure(entry.change, entry.revision, entry.error));
+    }
+    return Response.ok(results);
+  }
+
+  /**
+   * Resolves the ownership of the changes of a project, opening its repository once for all of
+   * them. Changes targeting the same branch share the same OWNERS snapshot.
+   */
+  private void resolveOwnership(
+      Project.NameKey project, List<BatchEntry> projectEntries, Set<Account.Id> accountIds) {
+    ProjectState projectState = projectCache.get(project).orElseThrow(illegalState(project));
+    try (Repository repository = repositoryManager.openRepository(project)) {
+      for (BatchEntry entry : projectEntries) {
+        RevisionResource revision = entry.revisionResource;
+        try {
+          entry.owners =
+              getFilesOwners.resolveOwnership(
+                  repository,
+                  projectState,
+                  revision.getChange().getDest().branch(),
+                  new HashSet<>(revision.getChangeResource().getChangeData().currentFilePaths()));
+          accountIds.addAll(getFilesOwners.accountIds(entry.owners));
+        } catch (IOException | InvalidOwnersFileException e) {
+          logger.atSevere().withCause(e).log("Reading/parsing OWNERS file error.");
+          entry.error = e.getMessage();
+        }
+      }
+    } catch (IOException e) {
+      logger.atSevere().withCause(e).log("Unable to open the repository of project %s", project);
+      projectEntries.forEach(entry -> entry.error = e.getMessage());
+    }
+  }
+
+  private static class BatchEntry {
+    private final String change;
+    private final String revision;
+    private RevisionResource revisionResource;
+    private ResolvedOwnership owners;
+    private String error;
+
+    private BatchEntry(String change, String revision) {
+      this.change = change;
+      this.revision = revision;
+    }
+  }
+}
@@ -0,0 +1,63 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package gerrit_owners;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Labels formatted by {@code gerrit_owners:file_owners}, e.g. {@code John-Doe-owns-Main-java}.
+ * Labels are shared by all the evaluations since the same owners own many files.
+ */
+final class FileOwnersLabels {
+  static final int MAX_LABELS = 10_000;
+
+  private static final Pattern LABEL_SEPARATORS = Pattern.compile("[\\s_\\.]+");
+
+  private static final Cache<LabelKey, String> LABELS =
+      CacheBuilder.newBuilder().maximumSize(MAX_LABELS).build();
+
+  private record LabelKey(Set<String> ownersNames, String fileName) {}
+
+  /** Returns the label of the file at the path, owned by the owners with the given names. */
+  static String label(Set<String> ownersNames, String path) {
+    String fileName = path.substring(path.lastIndexOf('/') + 1);
+    return LABELS
+        .asMap()
+        .computeIfAbsent(
+            new LabelKey(ownersNames, fileName),
+            k -> formatLabel(k.ownersNames(), k.fileName()));
+  }
+
+  /** Replaces the whitespaces, underscores and dots, which labels cannot contain, with dashes. */
+  static String sanitizeAsSubmitLabel(String anyLabelPart) {
+    for (int i = 0; i < anyLabelPart.length(); i++) {
+      char c = anyLabelPart.charAt(i);
+      if (Character.isWhitespace(c) || c == '_' || c == '.') {
+        return LABEL_SEPARATORS.matcher(anyLabelPart).replaceAll("-");
+      }
+    }
+    return anyLabelPart;
+  }
+
+  private static String formatLabel(Set<String> ownersNames, String fileName) {
+    String ownVerb = ownersNames.size() > 1 ? "-own-" : "-owns-";
+    return String.join("-", ownersNames) + ownVerb + sanitizeAsSubmitLabel(fileName);
+  }
+
+  private FileOwnersLabels() {}
+}
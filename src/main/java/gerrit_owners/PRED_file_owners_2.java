@@ -14,7 +14,7 @@
 
 package gerrit_owners;
 
-import static com.googlesource.gerrit.owners.common.StreamUtils.iteratorStream;
+import static gerrit_owners.FileOwnersLabels.sanitizeAsSubmitLabel;
 
 import com.google.gerrit.entities.Account;
 import com.google.gerrit.server.IdentifiedUser;
@@ -30,10 +30,9 @@ import com.googlecode.prolog_cafe.lang.Term;
 import com.googlecode.prolog_cafe.lang.VariableTerm;
 import com.googlesource.gerrit.owners.OwnersStoredValues;
 import com.googlesource.gerrit.owners.common.PathOwners;
-import java.io.File;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Get the list of users owning this file Actually a variation of PRED_current_user/2 in gerrit main
@@ -44,7 +43,6 @@ import java.util.stream.Collectors;
  * </pre>
  */
 class PRED_file_owners_2 extends Predicate.P2 {
-
   PRED_file_owners_2(Term a1, Term a2, Operation n) {
     arg1 = a1;
     arg2 = a2;
@@ -66,6 +64,11 @@ class PRED_file_owners_2 extends Predicate.P2 {
   }
 
   public String getFullNameFromId(Prolog engine, Account.Id accountId) {
+    Map<Account.Id, String> fullNames = OwnersStoredValues.OWNERS_FULL_NAMES.get(engine);
+    if (fullNames.containsKey(accountId)) {
+      return sanitizeAsSubmitLabel(fullNames.get(accountId));
+    }
+
     Map<Account.Id, IdentifiedUser> cache = StoredValues.USERS.get(engine);
     IdentifiedUser user = cache.get(accountId);
     if (user == null) {
@@ -82,20 +85,15 @@ class PRED_file_owners_2 extends Predicate.P2 {
   public Term createFormattedList(Prolog engine, Term key) {
     String path = key.toString();
     PathOwners owners = OwnersStoredValues.PATH_OWNERS.get(engine);
-    Set<String> ownersNames =
-        owners.expandGroups()
-            ? iteratorStream(owners.getFileOwners().get(path).iterator())
-                .map(id -> getFullNameFromId(engine, id))
-                .collect(Collectors.toSet())
-            : iteratorStream((owners.getFileGroupOwners().get(path)).iterator())
-                .collect(Collectors.toSet());
-    String ownVerb = ownersNames.size() > 1 ? "-own-" : "-owns-";
-    String userNames = ownersNames.stream().collect(Collectors.joining("-"));
-    return SymbolTerm.create(userNames + ownVerb + sanitizeAsSubmitLabel(new File(path).getName()));
-  }
-
-  private String sanitizeAsSubmitLabel(String anyLabelPart) {
-    return anyLabelPart.replaceAll("[\\s_\\.]+", "-");
+    Set<String> ownersNames = new HashSet<>();
+    if (owners.expandGroups()) {
+      for (Account.Id id : owners.getFileOwners().get(path)) {
+        ownersNames.add(getFullNameFromId(engine, id));
+      }
+    } else {
+      ownersNames.addAll(owners.getFileGroupOwners().get(path));
+    }
+    return SymbolTerm.create(FileOwnersLabels.label(ownersNames, path));
   }
 
   private static IdentifiedUser.GenericFactory userFactory(Prolog engine) {
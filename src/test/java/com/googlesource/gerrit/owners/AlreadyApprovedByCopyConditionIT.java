@@ -16,6 +16,7 @@
 package com.googlesource.gerrit.owners;
 
 import static com.google.common.truth.Truth.assertThat;
+import static com.google.gerrit.acceptance.WaitUtil.waitUntil;
 import static com.google.gerrit.acceptance.testsuite.project.TestProjectUpdate.allow;
 import static com.google.gerrit.acceptance.testsuite.project.TestProjectUpdate.allowLabel;
 import static com.google.gerrit.extensions.client.ListChangesOption.CURRENT_COMMIT;
@@ -25,11 +26,15 @@ import static com.google.gerrit.server.group.SystemGroupBackend.REGISTERED_USERS
 import static com.googlesource.gerrit.owners.AlreadyApprovedByOperand.FULL_OPERAND_WITH_PLUGIN_NAME;
 import static java.util.stream.Collectors.joining;
 
+import com.codahale.metrics.Counting;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableSet;
 import com.google.gerrit.acceptance.LightweightPluginDaemonTest;
 import com.google.gerrit.acceptance.PushOneCommit;
 import com.google.gerrit.acceptance.TestAccount;
 import com.google.gerrit.acceptance.TestPlugin;
 import com.google.gerrit.acceptance.UseLocalDisk;
+import com.google.gerrit.acceptance.config.GlobalPluginConfig;
 import com.google.gerrit.acceptance.testsuite.change.ChangeOperations;
 import com.google.gerrit.acceptance.testsuite.project.ProjectOperations;
 import com.google.gerrit.acceptance.testsuite.request.RequestScopeOperations;
@@ -46,6 +51,7 @@ import com.google.gerrit.extensions.common.ChangeInfo;
 import com.google.gerrit.extensions.common.RevisionInfo;
 import com.google.gerrit.server.project.testing.TestLabels;
 import com.google.inject.Inject;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -60,6 +66,7 @@ public class AlreadyApprovedByCopyConditionIT extends LightweightPluginDaemonTes
   @Inject protected RequestScopeOperations requestScopeOperations;
   @Inject private ProjectOperations projectOperations;
   @Inject private ChangeOperations changeOperations;
+  @Inject private MetricRegistry metricRegistry;
 
   private TestAccount FRONTEND_FILES_OWNER;
   private TestAccount BACKEND_FILES_OWNER;
@@ -72,6 +79,13 @@ public class AlreadyApprovedByCopyConditionIT extends LightweightPluginDaemonTes
   private static final boolean AUTO_OWNERS_APPROVED_ENABLED = true;
   private static final boolean AUTO_OWNERS_APPROVAL_DISABLED = false;
 
+  private static final String DELTA_CACHE_HITS = "plugins/owners/count_patch_set_delta_cache_hits";
+  private static final String DELTA_CACHE_MISSES =
+      "plugins/owners/count_patch_set_delta_cache_misses";
+  private static final String COPY_CONDITION_TIMEOUTS =
+      "plugins/owners/count_copy_condition_timeouts";
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
   private static final String FILE_CONTENT =
       IntStream.rangeClosed(1, 10)
           .mapToObj(number -> String.format("Line %d\n", number))
@@ -115,6 +129,118 @@ public class AlreadyApprovedByCopyConditionIT extends LightweightPluginDaemonTes
     assertVote(changeId, BACKEND_FILES_OWNER, 0);
   }
 
+  @Test
+  public void shouldComputeTheDeltaOnceForAllTheApprovalsOfAnUpload() throws Exception {
+    ChangeIdentifier changeId =
+        changeOperations
+            .newChange()
+            .project(project)
+            .file(FRONTEND_OWNED_FILE)
+            .content("some frontend change")
+            .file(BACKEND_OWNED_FILE)
+            .content("some java content")
+            .create();
+
+    vote(FRONTEND_FILES_OWNER, changeId.toString(), 2);
+    vote(BACKEND_FILES_OWNER, changeId.toString(), 2);
+    long hits = count(DELTA_CACHE_HITS);
+    long misses = count(DELTA_CACHE_MISSES);
+
+    createPatchSet(changeId, BACKEND_OWNED_FILE, "updated java content");
+
+    assertVote(changeId, FRONTEND_FILES_OWNER, 2);
+    assertVote(changeId, BACKEND_FILES_OWNER, 0);
+    assertThat(count(DELTA_CACHE_MISSES)).isEqualTo(misses + 1);
+    assertThat(count(DELTA_CACHE_HITS)).isEqualTo(hits + 1);
+  }
+
+  @Test
+  @GlobalPluginConfig(pluginName = "owners", name = "owners.copyCondition.threads", value = "1")
+  public void shouldCopyApprovalOfUnmodifiedOwnedFilesWithTheThreadPool() throws Exception {
+    ChangeIdentifier changeId =
+        changeOperations
+            .newChange()
+            .project(project)
+            .file(FRONTEND_OWNED_FILE)
+            .content("some frontend change")
+            .file(BACKEND_OWNED_FILE)
+            .content("some java content")
+            .create();
+
+    vote(FRONTEND_FILES_OWNER, changeId.toString(), 2);
+    vote(BACKEND_FILES_OWNER, changeId.toString(), 2);
+
+    createPatchSet(changeId, BACKEND_OWNED_FILE, "updated java content");
+
+    assertVote(changeId, FRONTEND_FILES_OWNER, 2);
+    assertVote(changeId, BACKEND_FILES_OWNER, 0);
+  }
+
+  @Test
+  @GlobalPluginConfig(pluginName = "owners", name = "owners.copyCondition.threads", value = "1")
+  @GlobalPluginConfig(pluginName = "owners", name = "owners.copyCondition.timeout", value = "0")
+  public void shouldNotCopyApprovalWhenTheCopyConditionDeadlineExpires() throws Exception {
+    ChangeIdentifier changeId = createChange(FRONTEND_OWNED_FILE, "some frontend change");
+    vote(FRONTEND_FILES_OWNER, changeId.toString(), 2);
+    long timeouts = count(COPY_CONDITION_TIMEOUTS);
+
+    changeOperations
+        .change(changeId)
+        .newPatchset()
+        .commitMessage("Updated commit message")
+        .create();
+
+    assertVote(changeId, FRONTEND_FILES_OWNER, 0);
+    assertThat(count(COPY_CONDITION_TIMEOUTS)).isGreaterThan(timeouts);
+  }
+
+  @Test
+  public void shouldCacheThePathsOfThePriorPatchSetAgainstItsBase() throws Exception {
+    ChangeIdentifier changeId = createChange(FRONTEND_OWNED_FILE, "some frontend change");
+    vote(FRONTEND_FILES_OWNER, changeId.toString(), 2);
+    ObjectId priorCommit = commitOf(changeId);
+
+    createPatchSet(changeId, BACKEND_OWNED_FILE, "some java content");
+
+    assertVote(changeId, FRONTEND_FILES_OWNER, 2);
+    assertThat(
+            basePathsCache().get(new PatchSetBasePathsCache.Key(project, priorCommit, 0)).get())
+        .contains(FRONTEND_OWNED_FILE);
+  }
+
+  @Test
+  public void shouldTellWhetherTheApproverEverOwnedAFileFromTheCachedBasePaths()
+      throws Exception {
+    ChangeIdentifier changeId = createChange(FRONTEND_OWNED_FILE, "some frontend change");
+    vote(FRONTEND_FILES_OWNER, changeId.toString(), 2);
+    // The prior patch-set is never diffed again once its paths are cached
+    basePathsCache()
+        .put(
+            new PatchSetBasePathsCache.Key(project, commitOf(changeId), 0),
+            ImmutableSet.of(FILE_WITH_NO_OWNERS));
+
+    createPatchSet(changeId, BACKEND_OWNED_FILE, "some java content");
+
+    assertVote(changeId, FRONTEND_FILES_OWNER, 0);
+  }
+
+  @Test
+  public void shouldNotLoadTheBasePathsForApproverNotReferencedByAnyOwnersFile()
+      throws Exception {
+    BranchOwnerAccountsCache ownerAccountsCache =
+        plugin.getSysInjector().getInstance(BranchOwnerAccountsCache.class);
+    waitUntil(() -> !ownerAccountsCache.mayOwnFiles(project, "master", NON_OWNER.id()), TIMEOUT);
+    ChangeIdentifier changeId = createChange(FRONTEND_OWNED_FILE, "some frontend change");
+    vote(NON_OWNER, changeId.toString(), 2);
+    ObjectId priorCommit = commitOf(changeId);
+
+    createPatchSet(changeId, BACKEND_OWNED_FILE, "some java content");
+
+    assertVote(changeId, NON_OWNER, 0);
+    assertThat(basePathsCache().get(new PatchSetBasePathsCache.Key(project, priorCommit, 0)))
+        .isEmpty();
+  }
+
   @Test
   public void shouldNotCopyApprovalForOwnerWhenNoOwnedFileExists() throws Exception {
     ChangeIdentifier changeId = createChange(FILE_WITH_NO_OWNERS, "file with no owners");
@@ -155,6 +281,55 @@ public class AlreadyApprovedByCopyConditionIT extends LightweightPluginDaemonTes
     assertVote(changeId, BACKEND_FILES_OWNER, 2);
   }
 
+  @Test
+  public void shouldCopyApprovalOfOwnerListedInMultiLineFlowList() throws Exception {
+    String ownedFile = "file.txt";
+    pushOwnersToMaster(
+        String.format(
+            "inherited: true\nowners: [\n  %s,\n  %s ]\n",
+            FRONTEND_FILES_OWNER.username(), BACKEND_FILES_OWNER.username()));
+
+    ChangeIdentifier changeId = createChange(ownedFile, "java content");
+
+    vote(BACKEND_FILES_OWNER, changeId.toString(), 2);
+
+    changeOperations
+        .change(changeId)
+        .newPatchset()
+        .commitMessage("Updated commit message")
+        .create();
+
+    assertVote(changeId, BACKEND_FILES_OWNER, 2);
+  }
+
+  @Test
+  public void shouldCopyApprovalOfOwnerOfOwnersFileAddedAfterPreviousUploads() throws Exception {
+    TestAccount nestedOwner = accountCreator.create("user-nested");
+    ChangeIdentifier frontendChangeId = createChange(FRONTEND_OWNED_FILE, "frontend content");
+    vote(FRONTEND_FILES_OWNER, frontendChangeId.toString(), 2);
+    changeOperations
+        .change(frontendChangeId)
+        .newPatchset()
+        .commitMessage("Updated commit message")
+        .create();
+    assertVote(frontendChangeId, FRONTEND_FILES_OWNER, 2);
+
+    pushOwnersToRef(
+        ownersConfigFor(nestedOwner),
+        BACKEND_OWNED_FILE_PATH + "OWNERS",
+        RefNames.fullName("master"));
+
+    ChangeIdentifier changeId = createChange(BACKEND_OWNED_FILE, "java content");
+    vote(nestedOwner, changeId.toString(), 2);
+    changeOperations
+        .change(changeId)
+        .newPatchset()
+        .commitMessage("Updated commit message")
+        .create();
+
+    assertVote(changeId, nestedOwner, 2);
+  }
+
   @Test
   public void shouldNotCopyApprovalWhenOwnedFileIsDeleted() throws Exception {
     ChangeIdentifier changeId = createChange(BACKEND_OWNED_FILE, "java content");
@@ -842,6 +1017,14 @@ public class AlreadyApprovedByCopyConditionIT extends LightweightPluginDaemonTes
     return String.format("- suffix: %s\n  owners:\n   - %s\n", suffix, owner.username());
   }
 
+  private PatchSetBasePathsCache basePathsCache() {
+    return plugin.getSysInjector().getInstance(PatchSetBasePathsCache.class);
+  }
+
+  private long count(String name) {
+    return ((Counting) metricRegistry.getMetrics().get(name)).getCount();
+  }
+
   private void vote(TestAccount user, String changeId, int vote) throws Exception {
     requestScopeOperations.setApiUser(user.id());
     gApi.changes()
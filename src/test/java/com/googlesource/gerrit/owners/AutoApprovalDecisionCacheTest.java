@@ -0,0 +1,53 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.PatchSet;
+import com.googlesource.gerrit.owners.AutoApprovalDecisionCache.PathsSerializer;
+import com.googlesource.gerrit.owners.AutoApprovalDecisionCache.PatchSetIdSerializer;
+import org.junit.Test;
+
+public class AutoApprovalDecisionCacheTest {
+
+  @Test
+  public void shouldSerializeThePatchSet() {
+    PatchSet.Id patchSet = PatchSet.id(Change.id(1234), 5);
+
+    assertThat(
+            PatchSetIdSerializer.INSTANCE.deserialize(
+                PatchSetIdSerializer.INSTANCE.serialize(patchSet)))
+        .isEqualTo(patchSet);
+  }
+
+  @Test
+  public void shouldSerializeTheAutoApprovedFiles() {
+    ImmutableSet<String> paths = ImmutableSet.of("a.txt", "dir/with space/b.java", "déjà.md");
+
+    assertThat(PathsSerializer.INSTANCE.deserialize(PathsSerializer.INSTANCE.serialize(paths)))
+        .containsExactlyElementsIn(paths);
+  }
+
+  @Test
+  public void shouldSerializeADecisionWithoutFiles() {
+    assertThat(
+            PathsSerializer.INSTANCE.deserialize(
+                PathsSerializer.INSTANCE.serialize(ImmutableSet.of())))
+        .isEmpty();
+  }
+}
@@ -0,0 +1,122 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlesource.gerrit.owners.BranchOwnerAccountsCache.diffOwnersFiles;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.gerrit.entities.Account;
+import com.googlesource.gerrit.owners.BranchOwnerAccountsCache.BranchOwnersFiles;
+import com.googlesource.gerrit.owners.BranchOwnerAccountsCache.OwnerAccounts;
+import java.util.Map;
+import java.util.Optional;
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BranchOwnerAccountsCacheTest {
+  private TestRepository<InMemoryRepository> tr;
+
+  @Before
+  public void setUp() throws Exception {
+    tr = new TestRepository<>(new InMemoryRepository(new DfsRepositoryDescription("repo")));
+  }
+
+  @Test
+  public void shouldFindAllTheOwnersFilesOfTheFirstTip() throws Exception {
+    RevCommit tip =
+        tr.commit()
+            .add("OWNERS", "owners:\n- john\n")
+            .add("dir/OWNERS", "owners:\n- jane\n")
+            .add("dir/CODEOWNERS", "* @jane\n")
+            .add("dir/a.txt", "a")
+            .create();
+
+    assertThat(diffOwnersFiles(tr.getRepository(), Optional.empty(), tip))
+        .containsExactly(
+            "OWNERS", blob(tip, "OWNERS"),
+            "dir/OWNERS", blob(tip, "dir/OWNERS"));
+  }
+
+  @Test
+  public void shouldOnlyApplyTheOwnersFilesChangedSinceThePreviousTip() throws Exception {
+    RevCommit previousTip =
+        tr.commit()
+            .add("OWNERS", "owners:\n- john\n")
+            .add("dir/OWNERS", "owners:\n- jane\n")
+            .add("other/OWNERS", "owners:\n- joe\n")
+            .create();
+    RevCommit tip =
+        tr.commit()
+            .parent(previousTip)
+            .rm("OWNERS")
+            .add("dir/OWNERS", "owners:\n- jack\n")
+            .add("new/OWNERS", "owners:\n- jill\n")
+            .add("other/a.txt", "a")
+            .create();
+    // Unchanged entries are taken from the previous tip, never read again
+    ObjectId previousOther = ObjectId.fromString("0123456789012345678901234567890123456789");
+    BranchOwnersFiles previous =
+        new BranchOwnersFiles(
+            previousTip,
+            ImmutableMap.of(
+                "OWNERS", blob(previousTip, "OWNERS"),
+                "dir/OWNERS", blob(previousTip, "dir/OWNERS"),
+                "other/OWNERS", previousOther));
+
+    Map<String, ObjectId> blobs = diffOwnersFiles(tr.getRepository(), Optional.of(previous), tip);
+
+    assertThat(blobs)
+        .containsExactly(
+            "dir/OWNERS", blob(tip, "dir/OWNERS"),
+            "new/OWNERS", blob(tip, "new/OWNERS"),
+            "other/OWNERS", previousOther);
+  }
+
+  @Test
+  public void shouldReturnThePreviousOwnersFilesWhenNoneChanged() throws Exception {
+    RevCommit previousTip = tr.commit().add("OWNERS", "owners:\n- john\n").create();
+    RevCommit tip = tr.commit().parent(previousTip).add("a.txt", "a").create();
+    ImmutableMap<String, ObjectId> previousBlobs =
+        ImmutableMap.of("OWNERS", blob(previousTip, "OWNERS"));
+
+    assertThat(
+            diffOwnersFiles(
+                tr.getRepository(),
+                Optional.of(new BranchOwnersFiles(previousTip, previousBlobs)),
+                tip))
+        .isEqualTo(previousBlobs);
+  }
+
+  @Test
+  public void shouldOnlyRejectAccountsOutsideOfAnExhaustiveSet() {
+    Account.Id owner = Account.id(1000001);
+    Account.Id other = Account.id(1000002);
+
+    assertThat(new OwnerAccounts(ImmutableSet.of(owner), true).mayContain(owner)).isTrue();
+    assertThat(new OwnerAccounts(ImmutableSet.of(owner), true).mayContain(other)).isFalse();
+    assertThat(new OwnerAccounts(ImmutableSet.of(owner), false).mayContain(other)).isTrue();
+  }
+
+  private ObjectId blob(RevCommit commit, String path) throws Exception {
+    return tr.get(tr.getRevWalk().parseTree(commit), path).getId();
+  }
+}
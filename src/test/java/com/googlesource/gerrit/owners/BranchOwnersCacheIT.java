@@ -0,0 +1,138 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.stream.Collectors.toSet;
+
+import com.codahale.metrics.Counting;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.gerrit.acceptance.LightweightPluginDaemonTest;
+import com.google.gerrit.acceptance.PushOneCommit;
+import com.google.gerrit.acceptance.RestResponse;
+import com.google.gerrit.acceptance.TestAccount;
+import com.google.gerrit.acceptance.TestPlugin;
+import com.google.gerrit.acceptance.UseLocalDisk;
+import com.google.gerrit.acceptance.config.GlobalPluginConfig;
+import com.google.gerrit.entities.RefNames;
+import com.google.inject.Inject;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+
+@TestPlugin(name = "owners", sysModule = "com.googlesource.gerrit.owners.OwnersModule")
+@UseLocalDisk
+public class BranchOwnersCacheIT extends LightweightPluginDaemonTest {
+  private static final String CONFIG_LOADS = "plugins/owners/count_configuration_loads";
+
+  @Inject private MetricRegistry metricRegistry;
+
+  private Cache<BranchOwnersCache.Key, BranchOwnersCache.Snapshot> snapshots;
+
+  @Before
+  public void setUpSnapshots() {
+    snapshots =
+        plugin
+            .getSysInjector()
+            .getInstance(
+                Key.get(
+                    new TypeLiteral<Cache<BranchOwnersCache.Key, BranchOwnersCache.Snapshot>>() {},
+                    Names.named(BranchOwnersCache.CACHE_NAME)));
+  }
+
+  @Test
+  @GlobalPluginConfig(
+      pluginName = "owners",
+      name = "owners.enableSubmitRequirement",
+      value = "true")
+  public void shouldShareTheSnapshotAcrossTheChangesOfABranch() throws Exception {
+    TestAccount admin2 = accountCreator.admin2();
+    addOwnerFileToRoot(admin2);
+
+    PushOneCommit.Result first = createChange("Add a file", "foo", "bar");
+    assertThat(gApi.changes().id(first.getChangeId()).get().submittable).isFalse();
+    long loads = count(CONFIG_LOADS);
+
+    PushOneCommit.Result second = createChange("Change the file", "foo", "baz");
+    assertThat(gApi.changes().id(second.getChangeId()).get().submittable).isFalse();
+
+    assertThat(count(CONFIG_LOADS)).isEqualTo(loads);
+    assertThat(projectSnapshots()).hasSize(1);
+  }
+
+  @Test
+  @GlobalPluginConfig(
+      pluginName = "owners",
+      name = "owners.enableSubmitRequirement",
+      value = "true")
+  public void shouldEvictTheSnapshotsOfABranchWhenUpdated() throws Exception {
+    TestAccount admin2 = accountCreator.admin2();
+    TestAccount user1 = accountCreator.user1();
+    addOwnerFileToRoot(admin2);
+
+    PushOneCommit.Result r = createChange("Add a file", "foo", "bar");
+    assertThat(gApi.changes().id(r.getChangeId()).get().submittable).isFalse();
+    Set<BranchOwnersCache.Key> previousSnapshots = projectSnapshots();
+    assertThat(previousSnapshots).isNotEmpty();
+
+    addOwnerFileToRoot(user1);
+
+    assertThat(projectSnapshots()).containsNoneIn(previousSnapshots);
+  }
+
+  @Test
+  public void shouldNotMemoizeTheArbitraryPathsOfAPathsOwnersRequest() throws Exception {
+    addOwnerFileToRoot(accountCreator.admin2());
+    long loads = count(CONFIG_LOADS);
+
+    getPathsOwners("foo").assertOK();
+    getPathsOwners("foo").assertOK();
+
+    assertThat(count(CONFIG_LOADS)).isEqualTo(loads + 2);
+    assertThat(projectSnapshots()).isEmpty();
+  }
+
+  private RestResponse getPathsOwners(String path) throws Exception {
+    return adminRestSession.get(
+        String.format(
+            "/projects/%s/branches/master/owners~paths-owners?path=%s", project.get(), path));
+  }
+
+  private Set<BranchOwnersCache.Key> projectSnapshots() {
+    return snapshots.asMap().keySet().stream()
+        .filter(key -> key.project().equals(project))
+        .collect(toSet());
+  }
+
+  private long count(String name) {
+    return ((Counting) metricRegistry.getMetrics().get(name)).getCount();
+  }
+
+  private void addOwnerFileToRoot(TestAccount u) throws Exception {
+    pushFactory
+        .create(
+            admin.newIdent(),
+            testRepo,
+            "Add OWNER file",
+            "OWNERS",
+            String.format("inherited: true\nowners:\n- %s\n", u.email()))
+        .to(RefNames.fullName("master"))
+        .assertOkStatus();
+  }
+}
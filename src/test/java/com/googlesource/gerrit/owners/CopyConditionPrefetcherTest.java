@@ -0,0 +1,113 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlesource.gerrit.owners.CopyConditionPrefetcher.COPY_CONDITION;
+import static com.googlesource.gerrit.owners.CopyConditionPrefetcher.THREADS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.PatchSet;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.server.config.PluginConfigFactory;
+import com.google.gerrit.server.git.WorkQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.jgit.lib.Config;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CopyConditionPrefetcherTest {
+  private static final String PLUGIN_NAME = "owners";
+  private static final Change.Id CHANGE = Change.id(1);
+  private static final PatchSetDeltaCache.Key UPLOAD =
+      new PatchSetDeltaCache.Key(
+          Project.nameKey("project"),
+          "master",
+          PatchSet.id(CHANGE, 1),
+          PatchSet.id(CHANGE, 2));
+
+  private Config config;
+  private PluginConfigFactory pluginConfigFactory;
+  private WorkQueue workQueue;
+  private ScheduledThreadPoolExecutor executor;
+
+  @Before
+  public void setUp() {
+    config = new Config();
+    pluginConfigFactory = mock(PluginConfigFactory.class);
+    when(pluginConfigFactory.getGlobalPluginConfig(PLUGIN_NAME)).thenReturn(config);
+    executor = mock(ScheduledThreadPoolExecutor.class);
+    workQueue = mock(WorkQueue.class);
+    when(workQueue.createQueue(anyInt(), anyString())).thenReturn(executor);
+  }
+
+  @Test
+  public void shouldRunOnTheCallingThreadWhenDisabled() throws Exception {
+    CopyConditionPrefetcher prefetcher = newPrefetcher();
+    prefetcher.start();
+
+    Future<Thread> future = prefetcher.prefetch(UPLOAD, "delta", Thread::currentThread);
+
+    assertThat(prefetcher.isEnabled()).isFalse();
+    assertThat(future.isDone()).isTrue();
+    assertThat(future.get()).isSameInstanceAs(Thread.currentThread());
+    verify(workQueue, never()).createQueue(anyInt(), anyString());
+  }
+
+  @Test
+  public void shouldRunOnTheCallingThreadWhenTheWorkQueueRejectsTheTask() throws Exception {
+    config.setInt(PLUGIN_NAME, COPY_CONDITION, THREADS, 1);
+    doThrow(new RejectedExecutionException()).when(executor).execute(any());
+    CopyConditionPrefetcher prefetcher = newPrefetcher();
+    prefetcher.start();
+
+    Future<Thread> future = prefetcher.prefetch(UPLOAD, "delta", Thread::currentThread);
+
+    assertThat(prefetcher.isEnabled()).isTrue();
+    assertThat(future.isDone()).isTrue();
+    assertThat(future.get()).isSameInstanceAs(Thread.currentThread());
+  }
+
+  @Test
+  public void shouldRunATaskOnceForAllTheApprovalsOfAnUpload() throws Exception {
+    config.setInt(PLUGIN_NAME, COPY_CONDITION, THREADS, 1);
+    doThrow(new RejectedExecutionException()).when(executor).execute(any());
+    CopyConditionPrefetcher prefetcher = newPrefetcher();
+    prefetcher.start();
+    AtomicInteger runs = new AtomicInteger();
+
+    Future<Integer> first = prefetcher.prefetch(UPLOAD, "delta", runs::incrementAndGet);
+    Future<Integer> second = prefetcher.prefetch(UPLOAD, "delta", runs::incrementAndGet);
+
+    assertThat(second).isSameInstanceAs(first);
+    assertThat(prefetcher.await(UPLOAD, second)).isEqualTo(1);
+    assertThat(runs.get()).isEqualTo(1);
+  }
+
+  private CopyConditionPrefetcher newPrefetcher() {
+    return new CopyConditionPrefetcher(PLUGIN_NAME, pluginConfigFactory, workQueue);
+  }
+}
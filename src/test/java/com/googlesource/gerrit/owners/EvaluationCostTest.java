@@ -0,0 +1,74 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+
+public class EvaluationCostTest {
+
+  @Test
+  public void shouldStartFromTheInitialCost() {
+    assertThat(new EvaluationCost(10).get()).isEqualTo(10);
+  }
+
+  @Test
+  public void shouldBecomeCheapWhenAnsweredFromCache() {
+    EvaluationCost cost = new EvaluationCost(10);
+    for (int i = 0; i < 100; i++) {
+      cost.cached();
+    }
+
+    assertThat(cost.get()).isEqualTo(EvaluationCost.MIN);
+  }
+
+  @Test
+  public void shouldNeverBeCheaperThanTheMinimum() {
+    EvaluationCost cost = new EvaluationCost(1);
+    for (int i = 0; i < 100; i++) {
+      cost.cached();
+      cost.noOwners();
+    }
+
+    assertThat(cost.get()).isEqualTo(EvaluationCost.MIN);
+  }
+
+  @Test
+  public void shouldRecoverFromCachedAnswersOnceComputed() {
+    EvaluationCost cost = new EvaluationCost(10);
+    for (int i = 0; i < 100; i++) {
+      cost.cached();
+    }
+    for (int i = 0; i < 100; i++) {
+      cost.computed(10_000);
+    }
+
+    assertThat(cost.get()).isEqualTo(EvaluationCost.MAX);
+  }
+
+  @Test
+  public void shouldGrowWithTheNumberOfFiles() {
+    EvaluationCost small = new EvaluationCost(10);
+    EvaluationCost large = new EvaluationCost(10);
+    for (int i = 0; i < 100; i++) {
+      small.computed(3);
+      large.computed(10_000);
+    }
+
+    assertThat(small.get()).isEqualTo(EvaluationCost.MIN_COMPUTED);
+    assertThat(large.get()).isEqualTo(EvaluationCost.MAX);
+  }
+}
@@ -0,0 +1,81 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.gerrit.acceptance.LightweightPluginDaemonTest;
+import com.google.gerrit.acceptance.TestPlugin;
+import com.google.gerrit.acceptance.UseLocalDisk;
+import com.google.gerrit.server.patch.DiffOperations;
+import com.google.inject.Inject;
+import java.util.Set;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.Test;
+
+@TestPlugin(name = "owners", sysModule = "com.googlesource.gerrit.owners.OwnersModule")
+@UseLocalDisk
+public class ModifiedPathsIT extends LightweightPluginDaemonTest {
+  private static final String CONTENT = "Line 1\nLine 2\nLine 3\nLine 4\nLine 5\n";
+
+  @Inject private DiffOperations diffOperations;
+
+  @Test
+  public void shouldReturnTheOldAndNewPathsOfARenamedFile() throws Exception {
+    try (Repository repo = repoManager.openRepository(project);
+        TestRepository<Repository> tr = new TestRepository<>(repo)) {
+      RevCommit base = tr.commit().add("old.txt", CONTENT).add("same.txt", "same").create();
+      RevCommit renamed =
+          tr.commit().parent(base).rm("old.txt").add("new.txt", CONTENT).add("b.txt", "b").create();
+
+      assertThat(againstParent(repo, renamed)).containsExactly("old.txt", "new.txt", "b.txt");
+    }
+  }
+
+  @Test
+  public void shouldCompareAMergeCommitAgainstItsAutoMerge() throws Exception {
+    try (Repository repo = repoManager.openRepository(project);
+        TestRepository<Repository> tr = new TestRepository<>(repo)) {
+      RevCommit base = tr.commit().add("a.txt", "a").add("b.txt", "b").create();
+      RevCommit first = tr.commit().parent(base).add("a.txt", "first").create();
+      RevCommit second = tr.commit().parent(base).add("b.txt", "second").create();
+      RevCommit merge =
+          tr.commit()
+              .parent(first)
+              .parent(second)
+              .add("b.txt", "second")
+              .add("c.txt", "added by the merge")
+              .create();
+
+      assertThat(againstParent(repo, merge)).containsExactly("c.txt");
+    }
+  }
+
+  @Test
+  public void shouldReturnAllTheFilesOfAnInitialCommit() throws Exception {
+    try (Repository repo = repoManager.openRepository(project);
+        TestRepository<Repository> tr = new TestRepository<>(repo)) {
+      RevCommit initial = tr.commit().add("a.txt", "a").add("dir/b.txt", "b").create();
+
+      assertThat(againstParent(repo, initial)).containsExactly("a.txt", "dir/b.txt");
+    }
+  }
+
+  private Set<String> againstParent(Repository repo, RevCommit commit) throws Exception {
+    return ModifiedPaths.againstParent(diffOperations, repo, project, commit);
+  }
+}
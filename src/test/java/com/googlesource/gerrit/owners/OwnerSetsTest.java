@@ -0,0 +1,61 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlesource.gerrit.owners.OwnerSets.groupByOwners;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+public class OwnerSetsTest {
+
+  @Test
+  public void shouldGroupTheFilesWithIdenticalOwners() {
+    Map<Set<String>, List<String>> filesByOwners =
+        groupByOwners(
+            Map.of(
+                "dir/a.txt", Set.of("john", "jane"),
+                "dir/b.txt", Set.of("jane", "john")));
+
+    assertThat(filesByOwners).hasSize(1);
+    assertThat(filesByOwners.get(Set.of("john", "jane")))
+        .containsExactly("dir/a.txt", "dir/b.txt");
+  }
+
+  @Test
+  public void shouldSeparateTheFilesWithDifferentOwners() {
+    Map<Set<String>, List<String>> filesByOwners =
+        groupByOwners(
+            Map.of(
+                "a.txt", Set.of("john"),
+                "b.txt", Set.of("john", "jane"),
+                "c.txt", Set.of("jane"),
+                "d.txt", Set.of("john")));
+
+    assertThat(filesByOwners.keySet())
+        .containsExactly(Set.of("john"), Set.of("john", "jane"), Set.of("jane"));
+    assertThat(filesByOwners.get(Set.of("john"))).containsExactly("a.txt", "d.txt");
+    assertThat(filesByOwners.get(Set.of("john", "jane"))).containsExactly("b.txt");
+    assertThat(filesByOwners.get(Set.of("jane"))).containsExactly("c.txt");
+  }
+
+  @Test
+  public void shouldReturnNoGroupForNoFiles() {
+    assertThat(groupByOwners(Map.<String, Set<String>>of())).isEmpty();
+  }
+}
@@ -0,0 +1,126 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static com.google.gerrit.server.project.testing.TestLabels.labelBuilder;
+import static com.google.gerrit.server.project.testing.TestLabels.value;
+import static com.googlesource.gerrit.owners.OwnersSubmitRequirement.isApprovalMissing;
+import static org.mockito.Mockito.mock;
+
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.LabelFunction;
+import com.google.gerrit.entities.LabelId;
+import com.google.gerrit.entities.LabelType;
+import com.google.gerrit.entities.PatchSet;
+import com.google.gerrit.entities.PatchSetApproval;
+import com.googlesource.gerrit.owners.OwnersSubmitRequirement.LabelAndScore;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.Test;
+
+public class OwnersApprovalsTest {
+  private static final String LABEL_ID = "foo";
+  private static final String OTHER_LABEL_ID = "bar";
+  private static final int ACCOUNTS = 5;
+  private static final int[] VOTES = {-1, 0, 1, 2};
+
+  @Test
+  public void shouldMatchReferenceImplementationForAllOwnerSets() {
+    List<Account.Id> accounts = new ArrayList<>();
+    for (int i = 0; i < ACCOUNTS; i++) {
+      accounts.add(Account.id(1000000 + i));
+    }
+    Account.Id uploader = accounts.get(0);
+
+    for (LabelAndScore ownersLabel : ownersLabels()) {
+      for (int seed = 0; seed < 64; seed++) {
+        Map<Account.Id, List<PatchSetApproval>> approvalsByAccount = approvals(accounts, seed);
+        OwnersApprovals ownersApprovals =
+            OwnersApprovals.create(approvalsByAccount, uploader, ownersLabel);
+
+        for (int mask = 0; mask < (1 << ACCOUNTS); mask++) {
+          Set<Account.Id> owners = owners(accounts, mask);
+          assertWithMessage("approvals %s and owners %s", approvalsByAccount, owners)
+              .that(ownersApprovals.isApprovalMissing(owners))
+              .isEqualTo(
+                  isApprovalMissing(
+                      Map.entry("path", owners), uploader, approvalsByAccount, ownersLabel));
+        }
+      }
+    }
+  }
+
+  private static List<LabelAndScore> ownersLabels() {
+    return List.of(
+        new LabelAndScore(label(LabelFunction.MAX_NO_BLOCK).build(), Optional.empty()),
+        new LabelAndScore(label(LabelFunction.ANY_WITH_BLOCK).build(), Optional.empty()),
+        new LabelAndScore(label(LabelFunction.MAX_WITH_BLOCK).build(), Optional.of((short) 1)),
+        new LabelAndScore(
+            label(LabelFunction.MAX_NO_BLOCK).setIgnoreSelfApproval(true).build(),
+            Optional.empty()));
+  }
+
+  private static Map<Account.Id, List<PatchSetApproval>> approvals(
+      List<Account.Id> accounts, int seed) {
+    Map<Account.Id, List<PatchSetApproval>> approvalsByAccount = new HashMap<>();
+    for (int i = 0; i < accounts.size(); i++) {
+      int vote = VOTES[(seed + i * 3) % VOTES.length];
+      if ((seed >> i & 1) == 0 && vote == 0) {
+        // leave the account without any vote
+        continue;
+      }
+      Account.Id account = accounts.get(i);
+      String label = (seed + i) % 5 == 0 ? OTHER_LABEL_ID : LABEL_ID;
+      approvalsByAccount.put(account, List.of(approvedBy(account, label, vote)));
+    }
+    return approvalsByAccount;
+  }
+
+  private static Set<Account.Id> owners(List<Account.Id> accounts, int mask) {
+    Set<Account.Id> owners = new HashSet<>();
+    for (int i = 0; i < accounts.size(); i++) {
+      if ((mask >> i & 1) == 1) {
+        owners.add(accounts.get(i));
+      }
+    }
+    return owners;
+  }
+
+  private static LabelType.Builder label(LabelFunction function) {
+    return labelBuilder(
+            LABEL_ID,
+            value(2, "Approved"),
+            value(1, "Looks good"),
+            value(0, "No score"),
+            value(-1, "Blocked"))
+        .setFunction(function);
+  }
+
+  private static PatchSetApproval approvedBy(Account.Id approving, String label, int value) {
+    return PatchSetApproval.builder()
+        .key(PatchSetApproval.key(mock(PatchSet.Id.class), approving, LabelId.create(label)))
+        .granted(Instant.now())
+        .realAccountId(approving)
+        .value(value)
+        .build();
+  }
+}
@@ -0,0 +1,96 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.gerrit.acceptance.WaitUtil.waitUntil;
+
+import com.codahale.metrics.Counting;
+import com.codahale.metrics.MetricRegistry;
+import com.google.gerrit.acceptance.LightweightPluginDaemonTest;
+import com.google.gerrit.acceptance.TestAccount;
+import com.google.gerrit.acceptance.TestPlugin;
+import com.google.gerrit.acceptance.UseLocalDisk;
+import com.google.gerrit.acceptance.config.GlobalPluginConfig;
+import com.google.gerrit.entities.RefNames;
+import com.google.inject.Inject;
+import java.time.Duration;
+import org.junit.Test;
+
+@TestPlugin(name = "owners", sysModule = "com.googlesource.gerrit.owners.OwnersModule")
+@UseLocalDisk
+public class OwnersCacheWarmerIT extends LightweightPluginDaemonTest {
+  private static final String WARMUPS = "plugins/owners/warmup_latency";
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+  @Inject private MetricRegistry metricRegistry;
+
+  @Test
+  @GlobalPluginConfig(
+      pluginName = "owners",
+      name = "owners.enableSubmitRequirement",
+      value = "true")
+  @GlobalPluginConfig(pluginName = "owners", name = "owners.warmup.threads", value = "1")
+  public void shouldWarmUpTheOwnersOfNewPatchSets() throws Exception {
+    addOwnerFileToRoot(accountCreator.admin2());
+    long warmups = count(WARMUPS);
+
+    createChange("Add a file", "foo", "bar");
+
+    waitUntil(() -> count(WARMUPS) > warmups, TIMEOUT);
+  }
+
+  @Test
+  @GlobalPluginConfig(
+      pluginName = "owners",
+      name = "owners.enableSubmitRequirement",
+      value = "true")
+  @GlobalPluginConfig(pluginName = "owners", name = "owners.warmup.threads", value = "1")
+  public void shouldWarmUpTheOpenChangesOfAnUpdatedBranch() throws Exception {
+    addOwnerFileToRoot(accountCreator.admin2());
+    long initialWarmups = count(WARMUPS);
+    createChange("Add a file", "foo", "bar");
+    waitUntil(() -> count(WARMUPS) > initialWarmups, TIMEOUT);
+    long warmups = count(WARMUPS);
+
+    addOwnerFileToRoot(accountCreator.user1());
+
+    waitUntil(() -> count(WARMUPS) > warmups, TIMEOUT);
+  }
+
+  @Test
+  @GlobalPluginConfig(pluginName = "owners", name = "owners.warmup.threads", value = "1")
+  public void shouldNotWarmUpWhenTheSubmitRequirementIsDisabled() throws Exception {
+    OwnersCacheWarmer warmer = plugin.getSysInjector().getInstance(OwnersCacheWarmer.class);
+
+    assertThat(warmer.isEnabled()).isFalse();
+  }
+
+  private long count(String name) {
+    return ((Counting) metricRegistry.getMetrics().get(name)).getCount();
+  }
+
+  private void addOwnerFileToRoot(TestAccount u) throws Exception {
+    pushFactory
+        .create(
+            admin.newIdent(),
+            testRepo,
+            "Add OWNER file",
+            "OWNERS",
+            String.format("inherited: true\nowners:\n- %s\n", u.email()))
+        .to(RefNames.fullName("master"))
+        .assertOkStatus();
+  }
+}
@@ -45,6 +45,14 @@ public class OwnersMetricsIT extends LightweightPluginDaemonTest {
     assertMetricExists("plugins/owners/load_configuration_latency");
     assertMetricExists("plugins/owners/count_submit_rule_runs");
     assertMetricExists("plugins/owners/run_submit_rule_latency");
+    assertMetricExists("plugins/owners/count_submit_result_cache_hits");
+    assertMetricExists("plugins/owners/count_submit_result_cache_misses");
+    assertMetricExists("plugins/owners/warmup_queue_depth");
+    assertMetricExists("plugins/owners/count_warmup_drops");
+    assertMetricExists("plugins/owners/warmup_latency");
+    assertMetricExists("plugins/owners/count_patch_set_delta_cache_hits");
+    assertMetricExists("plugins/owners/count_patch_set_delta_cache_misses");
+    assertMetricExists("plugins/owners/count_copy_condition_timeouts");
   }
 
   private void assertMetricExists(String name) {
@@ -0,0 +1,128 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.gerrit.acceptance.WaitUtil.waitUntil;
+import static java.util.stream.Collectors.toList;
+
+import com.google.gerrit.acceptance.LightweightPluginDaemonTest;
+import com.google.gerrit.acceptance.PushOneCommit;
+import com.google.gerrit.acceptance.TestAccount;
+import com.google.gerrit.acceptance.TestPlugin;
+import com.google.gerrit.acceptance.UseLocalDisk;
+import com.google.gerrit.acceptance.config.GlobalPluginConfig;
+import com.google.gerrit.acceptance.testsuite.request.RequestScopeOperations;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.extensions.api.changes.ReviewInput;
+import com.google.gerrit.server.notedb.ChangeNotes;
+import com.google.inject.Inject;
+import java.time.Duration;
+import java.util.List;
+import org.junit.Test;
+
+@TestPlugin(name = "owners", sysModule = "com.googlesource.gerrit.owners.OwnersModule")
+@UseLocalDisk
+public class OwnersPendingHasOperandIT extends LightweightPluginDaemonTest {
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+  @Inject private RequestScopeOperations requestScopeOperations;
+  @Inject private ChangeNotes.Factory changeNotesFactory;
+
+  @Test
+  public void shouldMatchChangesUntilApprovedByOwners() throws Exception {
+    TestAccount admin2 = accountCreator.admin2();
+    addOwnerFileToRoot(admin2);
+
+    PushOneCommit.Result r = createChange("Add a file", "foo", "bar");
+    assertThat(pendingOwnersChanges()).containsExactly(r.getChange().getId().get());
+
+    requestScopeOperations.setApiUser(admin2.id());
+    gApi.changes().id(r.getChangeId()).current().review(ReviewInput.approve());
+    assertThat(pendingOwnersChanges()).isEmpty();
+  }
+
+  @Test
+  public void shouldNotMatchChangesWithoutOwners() throws Exception {
+    createChange("Add a file", "foo", "bar");
+    assertThat(pendingOwnersChanges()).isEmpty();
+  }
+
+  @Test
+  @GlobalPluginConfig(
+      pluginName = "owners",
+      name = "owners.enableSubmitRequirement",
+      value = "true")
+  public void shouldNotUseTheStoredStatusOnceTheOwnersChange() throws Exception {
+    TestAccount admin2 = accountCreator.admin2();
+    addOwnerFileToRoot(admin2);
+    PushOneCommit.Result r = createChange("Add a file", "foo", "bar");
+    requestScopeOperations.setApiUser(admin2.id());
+    gApi.changes().id(r.getChangeId()).current().review(ReviewInput.approve());
+    requestScopeOperations.setApiUser(admin.id());
+
+    OwnersApprovalStatusCache statusCache = statusCache();
+    waitUntil(() -> statusCache.get(change(r)).isPresent(), TIMEOUT);
+    assertThat(statusCache.get(change(r)).get().isApproved()).isTrue();
+    assertThat(pendingOwnersChanges()).isEmpty();
+
+    addOwnerFileToRoot(user);
+
+    assertThat(pendingOwnersChanges()).containsExactly(r.getChange().getId().get());
+  }
+
+  @Test
+  public void shouldNotStoreTheStatusWhenTheSubmitRequirementIsDisabled() throws Exception {
+    TestAccount admin2 = accountCreator.admin2();
+    addOwnerFileToRoot(admin2);
+
+    PushOneCommit.Result r = createChange("Add a file", "foo", "bar");
+
+    assertThat(statusCache().get(change(r))).isEmpty();
+    assertThat(pendingOwnersChanges()).containsExactly(r.getChange().getId().get());
+  }
+
+  private OwnersApprovalStatusCache statusCache() {
+    return plugin.getSysInjector().getInstance(OwnersApprovalStatusCache.class);
+  }
+
+  private Change change(PushOneCommit.Result r) {
+    return changeNotesFactory.createChecked(project, r.getChange().getId()).getChange();
+  }
+
+  private List<Integer> pendingOwnersChanges() throws Exception {
+    return gApi.changes().query("status:open has:pending_owners").get().stream()
+        .map(c -> c._number)
+        .collect(toList());
+  }
+
+  private void addOwnerFileToRoot(TestAccount u) throws Exception {
+    // Add OWNERS file to root:
+    //
+    // inherited: true
+    // owners:
+    // - u.email()
+    pushFactory
+        .create(
+            admin.newIdent(),
+            testRepo,
+            "Add OWNER file",
+            "OWNERS",
+            String.format("inherited: true\nowners:\n- %s\n", u.email()))
+        .to(RefNames.fullName("master"))
+        .assertOkStatus();
+  }
+}
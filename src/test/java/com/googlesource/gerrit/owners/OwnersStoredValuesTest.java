@@ -0,0 +1,68 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlesource.gerrit.owners.OwnersStoredValues.loadFullNames;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.server.account.AccountCache;
+import com.google.gerrit.server.account.AccountState;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+public class OwnersStoredValuesTest {
+  private static final Account.Id JOHN = Account.id(1000001);
+  private static final Account.Id JANE = Account.id(1000002);
+
+  @Test
+  public void shouldLoadTheFullNamesOfAllTheOwnersAtOnce() {
+    AccountCache accountCache = mock(AccountCache.class);
+    when(accountCache.get(Set.of(JOHN, JANE)))
+        .thenReturn(ImmutableMap.of(JOHN, account(JOHN, "John Doe"), JANE, account(JANE, "Jane")));
+
+    Map<Account.Id, String> fullNames =
+        loadFullNames(
+            accountCache,
+            Map.of("a.txt", Set.of(JOHN), "b.txt", Set.of(JOHN, JANE), "c.txt", Set.of(JANE)));
+
+    assertThat(fullNames).containsExactly(JOHN, "John Doe", JANE, "Jane");
+    verify(accountCache).get(Set.of(JOHN, JANE));
+    verify(accountCache, never()).get(any(Account.Id.class));
+  }
+
+  @Test
+  public void shouldSkipTheOwnersWithoutAccount() {
+    AccountCache accountCache = mock(AccountCache.class);
+    when(accountCache.get(Set.of(JOHN, JANE)))
+        .thenReturn(ImmutableMap.of(JOHN, account(JOHN, "John Doe")));
+
+    assertThat(loadFullNames(accountCache, Map.of("a.txt", Set.of(JOHN, JANE))))
+        .containsExactly(JOHN, "John Doe");
+  }
+
+  private static AccountState account(Account.Id id, String fullName) {
+    return AccountState.forAccount(
+        Account.builder(id, Instant.EPOCH).setFullName(fullName).build());
+  }
+}
@@ -0,0 +1,125 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.codahale.metrics.Counting;
+import com.codahale.metrics.MetricRegistry;
+import com.google.gerrit.acceptance.LightweightPluginDaemonTest;
+import com.google.gerrit.acceptance.PushOneCommit;
+import com.google.gerrit.acceptance.TestAccount;
+import com.google.gerrit.acceptance.TestPlugin;
+import com.google.gerrit.acceptance.UseLocalDisk;
+import com.google.gerrit.acceptance.testsuite.request.RequestScopeOperations;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.extensions.api.changes.ChangeApi;
+import com.google.gerrit.extensions.api.changes.ReviewInput;
+import com.google.gerrit.server.config.SitePaths;
+import com.google.inject.Inject;
+import org.eclipse.jgit.storage.file.FileBasedConfig;
+import org.eclipse.jgit.util.FS;
+import org.junit.Test;
+
+@TestPlugin(name = "owners", sysModule = "com.googlesource.gerrit.owners.OwnersModule")
+@UseLocalDisk
+public class OwnersSubmitResultCacheIT extends LightweightPluginDaemonTest {
+  private static final String CACHE_HITS = "plugins/owners/count_submit_result_cache_hits";
+  private static final String CACHE_MISSES = "plugins/owners/count_submit_result_cache_misses";
+
+  @Inject private MetricRegistry metricRegistry;
+  @Inject private RequestScopeOperations requestScopeOperations;
+  @Inject private SitePaths sitePaths;
+
+  @Override
+  public void setUpTestPlugin() throws Exception {
+    FileBasedConfig ownersConfig =
+        new FileBasedConfig(sitePaths.etc_dir.resolve("owners.config").toFile(), FS.DETECTED);
+    ownersConfig.setBoolean("owners", null, "enableSubmitRequirement", true);
+    ownersConfig.save();
+    super.setUpTestPlugin();
+  }
+
+  @Test
+  public void shouldReuseTheCachedResultWhenNothingChanged() throws Exception {
+    TestAccount admin2 = accountCreator.admin2();
+    addOwnerFileToRoot(admin2);
+
+    PushOneCommit.Result r = createChange("Add a file", "foo", "bar");
+    ChangeApi changeApi = gApi.changes().id(r.getChangeId());
+    assertThat(changeApi.get().submittable).isFalse();
+
+    long hits = count(CACHE_HITS);
+    long misses = count(CACHE_MISSES);
+    assertThat(changeApi.get().submittable).isFalse();
+
+    assertThat(count(CACHE_MISSES)).isEqualTo(misses);
+    assertThat(count(CACHE_HITS)).isGreaterThan(hits);
+  }
+
+  @Test
+  public void shouldEvaluateAgainWhenTheApprovalsChange() throws Exception {
+    TestAccount admin2 = accountCreator.admin2();
+    addOwnerFileToRoot(admin2);
+
+    PushOneCommit.Result r = createChange("Add a file", "foo", "bar");
+    ChangeApi changeApi = gApi.changes().id(r.getChangeId());
+    assertThat(changeApi.get().submittable).isFalse();
+
+    long misses = count(CACHE_MISSES);
+    requestScopeOperations.setApiUser(admin2.id());
+    gApi.changes().id(r.getChangeId()).current().review(ReviewInput.approve());
+    requestScopeOperations.setApiUser(admin.id());
+
+    assertThat(changeApi.get().submittable).isTrue();
+    assertThat(count(CACHE_MISSES)).isGreaterThan(misses);
+  }
+
+  @Test
+  public void shouldEvaluateAgainWhenTheOwnersChange() throws Exception {
+    TestAccount admin2 = accountCreator.admin2();
+    TestAccount user1 = accountCreator.user1();
+    addOwnerFileToRoot(admin2);
+
+    PushOneCommit.Result r = createChange("Add a file", "foo", "bar");
+    ChangeApi changeApi = gApi.changes().id(r.getChangeId());
+    requestScopeOperations.setApiUser(admin2.id());
+    gApi.changes().id(r.getChangeId()).current().review(ReviewInput.approve());
+    requestScopeOperations.setApiUser(admin.id());
+    assertThat(changeApi.get().submittable).isTrue();
+
+    long misses = count(CACHE_MISSES);
+    addOwnerFileToRoot(user1);
+
+    assertThat(changeApi.get().submittable).isFalse();
+    assertThat(count(CACHE_MISSES)).isGreaterThan(misses);
+  }
+
+  private long count(String name) {
+    return ((Counting) metricRegistry.getMetrics().get(name)).getCount();
+  }
+
+  private void addOwnerFileToRoot(TestAccount u) throws Exception {
+    pushFactory
+        .create(
+            admin.newIdent(),
+            testRepo,
+            "Add OWNER file",
+            "OWNERS",
+            String.format("inherited: true\nowners:\n- %s\n", u.email()))
+        .to(RefNames.fullName("master"))
+        .assertOkStatus();
+  }
+}
@@ -0,0 +1,95 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.owners;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.gerrit.entities.Account;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import org.junit.Test;
+
+public class ResolvedOwnershipTest {
+  private static final Account.Id ALICE = Account.id(1000001);
+  private static final Account.Id BOB = Account.id(1000002);
+  private static final Account.Id CAROL = Account.id(1000003);
+
+  private final ResolvedOwnership ownership =
+      new ResolvedOwnership(
+          Set.of("a.txt", "b.txt", "dir/c.txt", "unowned.txt"),
+          Map.of("a.txt", Set.of(ALICE), "b.txt", Set.of(ALICE, BOB), "dir/c.txt", Set.of(BOB)),
+          Map.of(),
+          Set.of(),
+          Optional.empty());
+
+  @Test
+  public void shouldReturnThePathsOwnedByAnAccount() {
+    assertThat(ownership.getPathsOwnedBy(ALICE)).containsExactly("a.txt", "b.txt");
+    assertThat(ownership.getPathsOwnedBy(BOB)).containsExactly("b.txt", "dir/c.txt");
+    assertThat(ownership.getPathsOwnedBy(CAROL)).isEmpty();
+  }
+
+  @Test
+  public void shouldFilterTheGivenPathsOwnedByAnAccount() {
+    Set<String> paths = Set.of("b.txt", "dir/c.txt", "unowned.txt");
+
+    assertThat(ownership.filterFilesOwnedBy(ALICE, paths)).containsExactly("b.txt");
+    assertThat(ownership.filterFilesOwnedBy(BOB, paths)).containsExactly("b.txt", "dir/c.txt");
+    assertThat(ownership.filterFilesOwnedBy(CAROL, paths)).isEmpty();
+  }
+
+  @Test
+  public void shouldTellWhetherAnAccountOwnsAnyOfTheGivenPaths() {
+    assertThat(ownership.isAnyFileOwnedBy(ALICE, Set.of("dir/c.txt", "unowned.txt"))).isFalse();
+    assertThat(ownership.isAnyFileOwnedBy(BOB, Set.of("dir/c.txt", "unowned.txt"))).isTrue();
+    assertThat(ownership.isAnyFileOwnedBy(CAROL, ownership.getPaths())).isFalse();
+  }
+
+  @Test
+  public void shouldTellWhetherThePathsAreCovered() {
+    assertThat(ownership.covers(Set.of("a.txt", "unowned.txt"))).isTrue();
+    assertThat(ownership.covers(Set.of())).isTrue();
+    assertThat(ownership.covers(Set.of("a.txt", "other.txt"))).isFalse();
+  }
+
+  @Test
+  public void shouldIndexThePathsByOwnerOnlyOnceWhenFirstNeeded() {
+    AtomicInteger indexings = new AtomicInteger();
+    Map<String, Set<Account.Id>> fileOwners =
+        new HashMap<>(Map.of("a.txt", Set.of(ALICE), "b.txt", Set.of(ALICE, BOB))) {
+          @Override
+          public void forEach(BiConsumer<? super String, ? super Set<Account.Id>> action) {
+            indexings.incrementAndGet();
+            super.forEach(action);
+          }
+        };
+    ResolvedOwnership lazyOwnership =
+        new ResolvedOwnership(
+            Set.of("a.txt", "b.txt"), fileOwners, Map.of(), Set.of(), Optional.empty());
+
+    assertThat(lazyOwnership.covers(Set.of("a.txt"))).isTrue();
+    assertThat(lazyOwnership.getFileOwners()).isSameInstanceAs(fileOwners);
+    assertThat(indexings.get()).isEqualTo(0);
+
+    assertThat(lazyOwnership.getPathsOwnedBy(ALICE)).containsExactly("a.txt", "b.txt");
+    assertThat(lazyOwnership.filterFilesOwnedBy(BOB, Set.of("b.txt"))).containsExactly("b.txt");
+    assertThat(lazyOwnership.isAnyFileOwnedBy(CAROL, Set.of("a.txt"))).isFalse();
+    assertThat(indexings.get()).isEqualTo(1);
+  }
+}
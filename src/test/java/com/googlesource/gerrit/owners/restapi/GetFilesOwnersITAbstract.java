@@ -21,10 +21,13 @@ import static com.google.gerrit.server.group.SystemGroupBackend.REGISTERED_USERS
 import static com.google.gerrit.testing.GerritJUnit.assertThrows;
 import static com.googlesource.gerrit.owners.AlreadyApprovedByOperand.FULL_OPERAND_WITH_PLUGIN_NAME;
 
+import com.google.common.cache.Cache;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.google.gerrit.acceptance.GitUtil;
 import com.google.gerrit.acceptance.LightweightPluginDaemonTest;
 import com.google.gerrit.acceptance.PushOneCommit.Result;
+import com.google.gerrit.acceptance.RestResponse;
 import com.google.gerrit.acceptance.TestAccount;
 import com.google.gerrit.acceptance.UseLocalDisk;
 import com.google.gerrit.acceptance.config.GlobalPluginConfig;
@@ -33,6 +36,7 @@ import com.google.gerrit.acceptance.testsuite.project.ProjectOperations;
 import com.google.gerrit.acceptance.testsuite.request.RequestScopeOperations;
 import com.google.gerrit.entities.LabelId;
 import com.google.gerrit.entities.LabelType;
+import com.google.gerrit.entities.PatchSet;
 import com.google.gerrit.entities.Project;
 import com.google.gerrit.entities.Project.NameKey;
 import com.google.gerrit.entities.RefNames;
@@ -44,19 +48,31 @@ import com.google.gerrit.extensions.restapi.BadRequestException;
 import com.google.gerrit.extensions.restapi.ResourceConflictException;
 import com.google.gerrit.extensions.restapi.ResourceNotFoundException;
 import com.google.gerrit.extensions.restapi.Response;
+import com.google.gerrit.server.config.ConfigResource;
 import com.google.gerrit.server.project.testing.TestLabels;
+import com.google.gson.reflect.TypeToken;
 import com.google.inject.Inject;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
 import com.googlesource.gerrit.owners.common.InvalidOwnersFileException;
 import com.googlesource.gerrit.owners.common.LabelDefinition;
+import com.googlesource.gerrit.owners.entities.ChangeFilesOwnersResponse;
+import com.googlesource.gerrit.owners.entities.CompactFilesOwnersResponse;
 import com.googlesource.gerrit.owners.entities.FilesOwnersResponse;
 import com.googlesource.gerrit.owners.entities.GroupOwner;
 import com.googlesource.gerrit.owners.entities.Owner;
 import com.googlesource.gerrit.owners.restapi.GetFilesOwners.LabelNotFoundException;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.servlet.http.HttpServletResponse;
+import org.apache.http.HttpHeaders;
+import org.apache.http.message.BasicHeader;
 import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
 import org.eclipse.jgit.junit.TestRepository;
 import org.eclipse.jgit.transport.FetchResult;
@@ -68,6 +84,7 @@ public abstract class GetFilesOwnersITAbstract extends LightweightPluginDaemonTe
   private static final String UNOWNED_TXT_FILE = "a.txt";
   private static final String OWNED_JAVA_FILE = "foo.java";
   private static final Set<GroupOwner> NO_AUTO_APPROVED_OWNERS = Set.of();
+  private static final String AUTO_APPROVAL_DECISIONS = "owners_auto_approval_decisions";
   @Inject protected ProjectOperations projectOperations;
   @Inject protected RequestScopeOperations requestScopeOperations;
   @Inject protected ChangeOperations changeOperations;
@@ -144,6 +161,222 @@ public abstract class GetFilesOwnersITAbstract extends LightweightPluginDaemonTe
         .containsExactly(admin.id().get(), Map.of(LabelId.CODE_REVIEW, 2));
   }
 
+  @Test
+  public void shouldReturnZeroOwnersLabelsOfReviewersThatDidNotVote() throws Exception {
+    addOwnerFileToRoot(true);
+    String changeId = createChange().getChangeId();
+    approve(changeId);
+    gApi.changes().id(changeId).addReviewer(user.email());
+
+    Response<FilesOwnersResponse> resp =
+        assertResponseOk(ownersApi.apply(parseCurrentRevisionResource(changeId)));
+
+    assertThat(resp.value().ownersLabels())
+        .containsExactly(
+            admin.id().get(),
+            Map.of(LabelId.CODE_REVIEW, 2),
+            user.id().get(),
+            Map.of(LabelId.CODE_REVIEW, 0));
+  }
+
+  @Test
+  public void shouldReturnOnlyOwnersLabelsWhenRequested() throws Exception {
+    addOwnerFileToRoot(true);
+    String changeId = createChange().getChangeId();
+    approve(changeId);
+    vote(user, changeId, 1);
+
+    ownersApi.setOnlyOwners(true);
+    Response<FilesOwnersResponse> resp =
+        assertResponseOk(ownersApi.apply(parseCurrentRevisionResource(changeId)));
+
+    assertThat(resp.value().ownersLabels())
+        .containsExactly(admin.id().get(), Map.of(LabelId.CODE_REVIEW, 2));
+  }
+
+  @Test
+  public void shouldPaginateFilesInPathOrder() throws Exception {
+    addOwnerFileToRoot(true);
+    String changeId = createChangeWithFiles("a.txt", "b.txt", "c.txt");
+
+    ownersApi.setStart(1);
+    ownersApi.setLimit(1);
+    Response<FilesOwnersResponse> resp =
+        assertResponseOk(ownersApi.apply(parseCurrentRevisionResource(changeId)));
+
+    assertThat(resp.value().files()).containsExactly("b.txt", Sets.newHashSet(rootOwner));
+    assertThat(resp.value().moreFiles()).isTrue();
+  }
+
+  @Test
+  public void shouldComputeOwnersLabelsOverAllFilesWhenPaginating() throws Exception {
+    addOwnerFileWithMatchersToRoot(true);
+    String changeId = createChangeWithFiles("a.java", "b.txt");
+    approve(changeId);
+
+    ownersApi.setOnlyOwners(true);
+    ownersApi.setLimit(1);
+    Response<FilesOwnersResponse> resp =
+        assertResponseOk(ownersApi.apply(parseCurrentRevisionResource(changeId)));
+
+    assertThat(resp.value().files()).isEmpty();
+    assertThat(resp.value().ownersLabels())
+        .containsExactly(admin.id().get(), Map.of(LabelId.CODE_REVIEW, 2));
+    assertThat(resp.value().moreFiles()).isTrue();
+  }
+
+  @Test
+  public void shouldReportTheApprovalOfThePaginatedFilesOnly() throws Exception {
+    addOwnerFileToRoot(true);
+    String changeId = createChangeWithFiles("a.txt", "b.txt", "c.txt");
+    approve(changeId);
+
+    ownersApi.setStart(2);
+    ownersApi.setLimit(1);
+    Response<FilesOwnersResponse> resp =
+        assertResponseOk(ownersApi.apply(parseCurrentRevisionResource(changeId)));
+
+    assertThat(resp.value().files()).isEmpty();
+    assertThat(resp.value().filesApproved())
+        .containsExactly("c.txt", Sets.newHashSet(new Owner(admin.fullName(), admin.id().get())));
+    assertThat(resp.value().moreFiles()).isFalse();
+  }
+
+  @Test
+  public void shouldKeepTheETagUntilTheChangeOrTheOwnersAreUpdated() throws Exception {
+    addOwnerFileToRoot(true);
+    String changeId = createChangeWithFiles("a.txt");
+    String etag = ownersApi.getETag(parseCurrentRevisionResource(changeId));
+    assertThat(ownersApi.getETag(parseCurrentRevisionResource(changeId))).isEqualTo(etag);
+
+    approve(changeId);
+    String approvedEtag = ownersApi.getETag(parseCurrentRevisionResource(changeId));
+    assertThat(approvedEtag).isNotEqualTo(etag);
+
+    addOwnerFileToProjectConfig(project, true, user);
+    assertThat(ownersApi.getETag(parseCurrentRevisionResource(changeId)))
+        .isNotEqualTo(approvedEtag);
+  }
+
+  @Test
+  public void shouldNotReturnTheResponseAgainWhenItsETagMatches() throws Exception {
+    addOwnerFileToRoot(true);
+    String changeId = createChangeWithFiles("a.txt");
+    String url = String.format("/changes/%s/revisions/current/owners~files-owners", changeId);
+    RestResponse resp = adminRestSession.get(url);
+    resp.assertOK();
+    String etag = resp.getHeader(HttpHeaders.ETAG);
+    assertThat(etag).isNotNull();
+
+    adminRestSession
+        .getWithHeaders(url, new BasicHeader(HttpHeaders.IF_NONE_MATCH, etag))
+        .assertStatus(HttpServletResponse.SC_NOT_MODIFIED);
+  }
+
+  @Test
+  public void shouldFilterFilesByPath() throws Exception {
+    addOwnerFileToRoot(true);
+    String changeId = createChangeWithFiles("a.txt", "dir/b.txt", "dir/c.java");
+
+    ownersApi.setPathPrefix("dir/");
+    ownersApi.setPathRegex(".*\\.txt");
+    Response<FilesOwnersResponse> resp =
+        assertResponseOk(ownersApi.apply(parseCurrentRevisionResource(changeId)));
+
+    assertThat(resp.value().files()).containsExactly("dir/b.txt", Sets.newHashSet(rootOwner));
+    assertThat(resp.value().moreFiles()).isNull();
+  }
+
+  @Test
+  public void shouldReturnEachOwnerSetOnceInCompactFormat() throws Exception {
+    addOwnerFileToRoot(true);
+    String changeId = createChangeWithFiles("a.txt", "b.txt");
+
+    CompactFilesOwnersResponse resp =
+        assertResponseOk(
+                plugin
+                    .getSysInjector()
+                    .getInstance(GetFilesOwnersCompact.class)
+                    .apply(parseCurrentRevisionResource(changeId)))
+            .value();
+
+    assertThat(resp.ownerSets()).containsExactly(Sets.newHashSet(rootOwner));
+    assertThat(resp.files()).containsExactly("a.txt", 0, "b.txt", 0);
+  }
+
+  @Test
+  public void shouldReturnOwnersOfPathsAtBranchTip() throws Exception {
+    addOwnerFileToRoot(true);
+
+    RestResponse resp =
+        adminRestSession.get(
+            String.format(
+                "/projects/%s/branches/master/owners~paths-owners?path=a.txt&path=/dir/b.txt",
+                project.get()));
+
+    resp.assertOK();
+    Map<String, List<Owner>> pathsOwners =
+        newGson()
+            .fromJson(resp.getReader(), new TypeToken<Map<String, List<Owner>>>() {}.getType());
+    assertThat(pathsOwners)
+        .containsExactly("a.txt", List.of(rootOwner), "dir/b.txt", List.of(rootOwner));
+  }
+
+  @Test
+  public void shouldRejectTooManyPathsAtOnce() throws Exception {
+    String paths =
+        IntStream.rangeClosed(0, GetPathsOwners.MAX_PATHS)
+            .mapToObj(i -> String.format("path=file%d.txt", i))
+            .collect(Collectors.joining("&"));
+
+    adminRestSession
+        .get(
+            String.format(
+                "/projects/%s/branches/master/owners~paths-owners?%s", project.get(), paths))
+        .assertBadRequest();
+  }
+
+  @Test
+  public void shouldReturnFilesOwnersOfManyChangesAtOnce() throws Exception {
+    addOwnerFileToRoot(true);
+    String changeId = createChangeWithFiles("a.txt");
+    String otherChangeId = createChangeWithFiles("b.txt");
+
+    PostFilesOwners.Input input = new PostFilesOwners.Input();
+    input.changes =
+        List.of(changeRevision(changeId), changeRevision(otherChangeId), changeRevision("999999"));
+    List<ChangeFilesOwnersResponse> resp =
+        assertResponseOk(
+                plugin
+                    .getSysInjector()
+                    .getInstance(PostFilesOwners.class)
+                    .apply(new ConfigResource(), input))
+            .value();
+
+    assertThat(resp).hasSize(3);
+    assertThat(resp.get(0).change()).isEqualTo(changeId);
+    assertThat(resp.get(0).owners().files()).containsExactly("a.txt", Sets.newHashSet(rootOwner));
+    assertThat(resp.get(1).change()).isEqualTo(otherChangeId);
+    assertThat(resp.get(1).owners().files()).containsExactly("b.txt", Sets.newHashSet(rootOwner));
+    assertThat(resp.get(2).owners()).isNull();
+    assertThat(resp.get(2).error()).isNotNull();
+  }
+
+  @Test
+  public void shouldRejectTooManyChangesAtOnce() throws Exception {
+    PostFilesOwners.Input input = new PostFilesOwners.Input();
+    input.changes =
+        Collections.nCopies(PostFilesOwners.MAX_CHANGES + 1, changeRevision("999999"));
+
+    assertThrows(
+        BadRequestException.class,
+        () ->
+            plugin
+                .getSysInjector()
+                .getInstance(PostFilesOwners.class)
+                .apply(new ConfigResource(), input));
+  }
+
   @Test
   public void shouldReturnEmptyFilesAndNonEmptyFilesApprovedResponseWhenApprovedByOwners()
       throws Exception {
@@ -286,6 +519,47 @@ public abstract class GetFilesOwnersITAbstract extends LightweightPluginDaemonTe
         .containsExactly(OWNED_JAVA_FILE, owners(admin), ANOTHER_OWNED_JAVA_FILE, owners(admin));
   }
 
+  @Test
+  public void shouldReturnFilesAutoApprovedWhenTheCopyConditionDecisionIsNotCached()
+      throws Exception {
+    setupAutoApprovalForJavaMatcher(admin);
+    String ANOTHER_OWNED_JAVA_FILE = "another-" + OWNED_JAVA_FILE;
+
+    ChangeIdentifier changeId =
+        changeOperations
+            .newChange()
+            .project(project)
+            .owner(admin.id())
+            .file(OWNED_JAVA_FILE)
+            .content("owned")
+            .file(UNOWNED_TXT_FILE)
+            .content("unowned")
+            .create();
+    vote(admin, changeId.toString(), 2);
+    changeOperations
+        .change(changeId)
+        .newPatchset()
+        .uploader(admin.id())
+        .file(ANOTHER_OWNED_JAVA_FILE)
+        .content("owned")
+        .create();
+    Cache<PatchSet.Id, ImmutableSet<String>> decisions =
+        plugin
+            .getSysInjector()
+            .getInstance(
+                Key.get(
+                    new TypeLiteral<Cache<PatchSet.Id, ImmutableSet<String>>>() {},
+                    Names.named(AUTO_APPROVAL_DECISIONS)));
+    decisions.invalidateAll();
+
+    Response<FilesOwnersResponse> response =
+        assertResponseOk(ownersApi.apply(parseCurrentRevisionResource(changeId.toString())));
+    assertThat(response.value().files()).isEmpty();
+    assertThat(response.value().filesApproved()).isEmpty();
+    assertThat(response.value().filesAutoApproved())
+        .containsExactly(OWNED_JAVA_FILE, owners(admin), ANOTHER_OWNED_JAVA_FILE, owners(admin));
+  }
+
   @Test
   @GlobalPluginConfig(pluginName = "owners", name = "owners.expandGroups", value = "false")
   public void shouldReturnResponseWithUnexpandedFileOwners() throws Exception {
@@ -642,6 +916,23 @@ public abstract class GetFilesOwnersITAbstract extends LightweightPluginDaemonTe
     return clonedProject;
   }
 
+  private String createChangeWithFiles(String... paths) throws Exception {
+    return pushFactory
+        .create(
+            admin.newIdent(),
+            testRepo,
+            "Add files",
+            Arrays.stream(paths).collect(Collectors.toMap(path -> path, path -> path)))
+        .to("refs/for/master")
+        .getChangeId();
+  }
+
+  private static PostFilesOwners.ChangeRevision changeRevision(String changeId) {
+    PostFilesOwners.ChangeRevision changeRevision = new PostFilesOwners.ChangeRevision();
+    changeRevision.change = changeId;
+    return changeRevision;
+  }
+
   private void vote(TestAccount user, String changeId, int vote) throws Exception {
     requestScopeOperations.setApiUser(user.id());
     gApi.changes()
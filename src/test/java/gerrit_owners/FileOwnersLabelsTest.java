@@ -0,0 +1,63 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package gerrit_owners;
+
+import static com.google.common.truth.Truth.assertThat;
+import static gerrit_owners.FileOwnersLabels.label;
+import static gerrit_owners.FileOwnersLabels.sanitizeAsSubmitLabel;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+import org.junit.Test;
+
+public class FileOwnersLabelsTest {
+
+  @Test
+  public void shouldFormatTheLabelOfASingleOwner() {
+    assertThat(label(Set.of("John-Doe"), "src/Main.java")).isEqualTo("John-Doe-owns-Main-java");
+  }
+
+  @Test
+  public void shouldFormatTheLabelOfManyOwners() {
+    assertThat(label(ImmutableSet.of("John", "Jane"), "README"))
+        .isEqualTo("John-Jane-own-README");
+  }
+
+  @Test
+  public void shouldReplaceTheSeparatorsOfTheFileName() {
+    assertThat(label(Set.of("John"), "dir/my_file name.tar.gz"))
+        .isEqualTo("John-owns-my-file-name-tar-gz");
+  }
+
+  @Test
+  public void shouldKeepALabelPartWithoutSeparators() {
+    String part = "JohnDoe";
+
+    assertThat(sanitizeAsSubmitLabel(part)).isSameInstanceAs(part);
+  }
+
+  @Test
+  public void shouldReplaceConsecutiveSeparatorsWithASingleDash() {
+    assertThat(sanitizeAsSubmitLabel("John _.Doe")).isEqualTo("John-Doe");
+  }
+
+  @Test
+  public void shouldShareTheLabelOfTheSameOwnersAndFileName() {
+    String label = label(Set.of("Cached-Owner"), "a/Shared.java");
+
+    assertThat(label(Set.of("Cached-Owner"), "b/Shared.java")).isSameInstanceAs(label);
+    assertThat(label(Set.of("Other-Owner"), "a/Shared.java")).isNotSameInstanceAs(label);
+  }
+}
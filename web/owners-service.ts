@@ -56,6 +56,48 @@ export interface FilesOwners {
   owners_labels: OwnersLabels;
 }
 
+/**
+ * Compact representation of `FilesOwners` where every distinct set of owners
+ * is listed once in `owner_sets` and files refer to it by index.
+ */
+export interface CompactFilesOwners {
+  owner_sets: FileOwner[][];
+  files: {[fileName: string]: number};
+  files_approved: {[fileName: string]: number};
+  files_auto_approved?: {[fileName: string]: number};
+  owners_labels: OwnersLabels;
+}
+
+function expandOwnedFiles(
+  ownerSets: FileOwner[][],
+  files?: {[fileName: string]: number}
+): OwnedFiles {
+  const ownedFiles: OwnedFiles = {};
+  for (const [fileName, ownerSet] of Object.entries(files ?? {})) {
+    ownedFiles[fileName] = ownerSets[ownerSet];
+  }
+  return ownedFiles;
+}
+
+/**
+ * Expands the compact response, files sharing the same owners share the same
+ * owners array.
+ */
+export function expandFilesOwners(compact: CompactFilesOwners): FilesOwners {
+  return {
+    files: expandOwnedFiles(compact.owner_sets, compact.files),
+    files_approved: expandOwnedFiles(
+      compact.owner_sets,
+      compact.files_approved
+    ),
+    files_auto_approved: expandOwnedFiles(
+      compact.owner_sets,
+      compact.files_auto_approved
+    ),
+    owners_labels: compact.owners_labels,
+  };
+}
+
 const OWNERS_SUBMIT_REQUIREMENT = 'has:approval_owners';
 const OWNERS_SUBMIT_RULE = 'owners~OwnersSubmitRequirement';
 
@@ -99,18 +141,23 @@ class OwnersApi {
    * @doc
    * https://gerrit.googlesource.com/plugins/owners/+/refs/heads/master/owners/src/main/resources/Documentation/rest-api.md
    */
-  getFilesOwners(
+  async getFilesOwners(
     repoName: RepoName,
     changeId: NumericChangeId,
     revision: String
   ): Promise<FilesOwners> {
-    return this.get(
+    const compact = (await this.get(
       `/changes/${encodeURIComponent(
         repoName
-      )}~${changeId}/revisions/${revision}/owners~files-owners`
-    ) as Promise<FilesOwners>;
+      )}~${changeId}/revisions/${revision}/owners~files-owners-compact`
+    )) as CompactFilesOwners;
+    return expandFilesOwners(compact);
   }
 
+  /**
+   * The responses are privately cacheable by the browser, which revalidates
+   * them with their `ETag` and reuses them while the owners did not change.
+   */
   private async get(url: string): Promise<unknown> {
     const errFn = (response?: Response | null, error?: Error) => {
       if (error) throw error;
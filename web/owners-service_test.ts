@@ -180,7 +180,7 @@ suite('owners service tests', () => {
       getApiStub
         .withArgs(
           sinon.match.any,
-          `/changes/${base_change.project}~${base_change._number}/revisions/current/owners~files-owners`,
+          `/changes/${base_change.project}~${base_change._number}/revisions/current/owners~files-owners-compact`,
           sinon.match.any,
           sinon.match.any
         )
@@ -189,6 +189,33 @@ suite('owners service tests', () => {
     }
 
     test('should call getFilesOwners', async () => {
+      const ownersLabels = {
+        '1000002': {
+          Verified: 1,
+          'Code-Review': 0,
+        },
+        '1000001': {
+          'Code-Review': 2,
+        },
+      };
+      const compact = {
+        owner_sets: [
+          [{name: 'Bob', id: 1000001}],
+          [
+            {name: 'John', id: 1000002},
+            {name: 'Bob', id: 1000001},
+            {name: 'Jack', id: 1000003},
+          ],
+        ],
+        files: {
+          'AJavaFile.java': 0,
+          'Aptyhonfileroot.py': 1,
+        },
+        files_approved: {
+          'BJavaFile.java': 0,
+        },
+        owners_labels: ownersLabels,
+      };
       const expected = {
         files: {
           'AJavaFile.java': [{name: 'Bob', id: 1000001}],
@@ -198,25 +225,25 @@ suite('owners service tests', () => {
             {name: 'Jack', id: 1000003},
           ],
         },
-        owners_labels: {
-          '1000002': {
-            Verified: 1,
-            'Code-Review': 0,
-          },
-          '1000001': {
-            'Code-Review': 2,
-          },
+        files_approved: {
+          'BJavaFile.java': [{name: 'Bob', id: 1000001}],
         },
+        files_auto_approved: {},
+        owners_labels: ownersLabels,
       };
-      setup(expected);
+      setup(compact);
 
       const response = await service.getFilesOwners();
       await flush();
       assert.equal(getApiStub.callCount, 1);
       assert.equal(
-        deepEqual(response, {...expected} as unknown as FilesOwners),
+        deepEqual(response, expected as unknown as FilesOwners),
         true
       );
+      assert.strictEqual(
+        response?.files['AJavaFile.java'],
+        response?.files_approved['BJavaFile.java']
+      );
     });
 
     test('should fetch response from plugin only once', async () => {